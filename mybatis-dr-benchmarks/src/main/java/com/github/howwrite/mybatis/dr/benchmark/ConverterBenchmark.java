@@ -0,0 +1,69 @@
+package com.github.howwrite.mybatis.dr.benchmark;
+
+import com.github.howwrite.converter.DefaultConverter;
+import com.github.howwrite.converter.ValueConverter;
+import com.github.howwrite.converter.ValueConverters;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DefaultConverter#deserialize(Type, Object)}和按字段解析好的{@link ValueConverter}的基准测试，覆盖数据库驱动常见的返回值类型
+ *
+ * @author mybatis-dr
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+    @Param
+    private Conversion conversion;
+
+    private DefaultConverter converter;
+
+    private ValueConverter valueConverter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        converter = new DefaultConverter();
+        valueConverter = ValueConverters.of(conversion.targetType, converter);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return converter.deserialize(conversion.targetType, conversion.value);
+    }
+
+    @Benchmark
+    public Object resolved() {
+        return valueConverter.convert(conversion.value);
+    }
+
+    /**
+     * 目标字段类型与数据库返回值的组合
+     */
+    public enum Conversion {
+        INT_FROM_LONG(Integer.class, 42L),
+        LONG_FROM_BIG_DECIMAL(Long.class, new BigDecimal("1234567890")),
+        DOUBLE_FROM_BIG_DECIMAL(Double.class, new BigDecimal("3.1415")),
+        STRING_FROM_STRING(String.class, "mybatis-dr"),
+        BOOLEAN_FROM_INTEGER(Boolean.class, 1),
+        LOCAL_DATE_TIME_FROM_TIMESTAMP(LocalDateTime.class, Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 12, 0)));
+
+        private final Type targetType;
+        private final Object value;
+
+        Conversion(Type targetType, Object value) {
+            this.targetType = targetType;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.howwrite.mybatis.dr.benchmark;
+
+import com.github.howwrite.mybatis.dr.benchmark.model.BenchEntities;
+import com.github.howwrite.util.EntityHelper;
+import com.github.howwrite.util.TableInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体与列值互转的基准测试
+ * <p>
+ * 按照独立列数量、feature字段数量、feature字段长度参数化，
+ * 配合{@link BenchmarkRunner}中的GC profiler输出每行的分配字节数(gc.alloc.rate.norm)
+ *
+ * @author mybatis-dr
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityHelperBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"4", "16"})
+    private int width;
+
+    @Param({"0", "4", "16"})
+    private int featureFields;
+
+    @Param({"16", "1024"})
+    private int featurePayloadSize;
+
+    private Class<?> entityClass;
+
+    private TableInfo<?> tableInfo;
+
+    private Object entity;
+
+    private List<Object> entities;
+
+    private Map<String, Object> row;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entityClass = BenchEntities.entityClass(width, featureFields);
+        tableInfo = EntityHelper.getTableInfo(entityClass);
+        entity = BenchEntities.newEntity(entityClass, featurePayloadSize, 1);
+        entities = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            entities.add(BenchEntities.newEntity(entityClass, featurePayloadSize, i));
+        }
+        row = BenchEntities.toRow(EntityHelper.parseEntity(entity, tableInfo, true));
+    }
+
+    /**
+     * 每次读写前查找表信息的开销，使用-t参数观察多线程下的表现
+     */
+    @Benchmark
+    public TableInfo<?> getTableInfo() {
+        return EntityHelper.getTableInfo(entityClass);
+    }
+
+    @Benchmark
+    public Map<String, Object> parseEntity() {
+        return EntityHelper.parseEntity(entity, tableInfo, true);
+    }
+
+    /**
+     * 每次调用解析{@link #BATCH_SIZE}行，结果按行归一化
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Map<String, Object>> parseEntities() {
+        return EntityHelper.parseEntities(entities, tableInfo, true);
+    }
+
+    @Benchmark
+    public Object convertToEntity() {
+        return EntityHelper.convertToEntity(row, tableInfo);
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.howwrite.mybatis.dr.benchmark;
+
+import com.github.howwrite.mybatis.dr.benchmark.model.BenchUser;
+import com.github.howwrite.mybatis.dr.benchmark.repository.BenchUserStore;
+import com.github.howwrite.mybatis.dr.benchmark.repository.BenchmarkConfiguration;
+import com.github.howwrite.mybatis.dr.benchmark.repository.JdbcStore;
+import com.github.howwrite.mybatis.dr.benchmark.repository.StoreType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DrRepository端到端基准测试，与手写MyBatis Mapper、原生JDBC在同一个H2(MODE=MySQL)库上对比每次调用的开销
+ * <p>
+ * 每个benchmark在独立的fork中运行，内存库互不影响；读操作基于setup中预置的{@link #SEED_ROWS}行数据
+ *
+ * @author mybatis-dr
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    private static final int SEED_ROWS = 1000;
+
+    private static final int AGE_BUCKETS = 100;
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param
+    private StoreType store;
+
+    private ConfigurableApplicationContext context;
+
+    private BenchUserStore benchUserStore;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(BenchmarkConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .profiles("benchmark")
+                .logStartupInfo(false)
+                .run();
+        List<BenchUser> seeds = new ArrayList<>(SEED_ROWS);
+        for (int i = 0; i < SEED_ROWS; i++) {
+            seeds.add(newUser(i));
+        }
+        new JdbcStore(context.getBean(DataSource.class)).batchInsert(seeds);
+        benchUserStore = store.create(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int insert() {
+        return benchUserStore.insert(newUser(ThreadLocalRandom.current().nextInt()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int batchInsert() {
+        List<BenchUser> users = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            users.add(newUser(i));
+        }
+        return benchUserStore.batchInsert(users);
+    }
+
+    /**
+     * 全部命中已存在的id，测量冲突更新的路径
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int batchInsertOrUpdate() {
+        List<BenchUser> users = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            BenchUser user = newUser(i);
+            user.setId((long) i + 1);
+            users.add(user);
+        }
+        return benchUserStore.batchInsertOrUpdate(users);
+    }
+
+    @Benchmark
+    public int update() {
+        BenchUser user = new BenchUser();
+        user.setName("updated");
+        user.setAddress("updated_address");
+        return benchUserStore.update(user, randomId());
+    }
+
+    @Benchmark
+    public List<BenchUser> findByCondition() {
+        return benchUserStore.findByAge(ThreadLocalRandom.current().nextInt(AGE_BUCKETS));
+    }
+
+    @Benchmark
+    public Optional<BenchUser> findOne() {
+        return benchUserStore.findById(randomId());
+    }
+
+    @Benchmark
+    public long count() {
+        return benchUserStore.countByAge(ThreadLocalRandom.current().nextInt(AGE_BUCKETS));
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextInt(SEED_ROWS) + 1;
+    }
+
+    private static BenchUser newUser(int seed) {
+        BenchUser user = new BenchUser();
+        user.setName("user_" + seed);
+        user.setAge(Math.floorMod(seed, AGE_BUCKETS));
+        user.setEmail("user_" + seed + "@example.com");
+        user.setAddress("address_" + seed);
+        return user;
+    }
+}
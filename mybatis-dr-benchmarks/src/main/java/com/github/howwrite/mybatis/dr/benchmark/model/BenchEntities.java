@@ -0,0 +1,95 @@
+package com.github.howwrite.mybatis.dr.benchmark.model;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基准测试实体工厂，按照列宽和feature字段数选择实体并填充数据
+ *
+ * @author mybatis-dr
+ */
+public final class BenchEntities {
+
+    private BenchEntities() {
+    }
+
+    /**
+     * @param width         独立列数量，支持4、16
+     * @param featureFields feature字段数量，支持0、4、16
+     * @return 对应的实体类
+     */
+    public static Class<?> entityClass(int width, int featureFields) {
+        String key = width + "_" + featureFields;
+        return switch (key) {
+            case "4_0" -> Width4Feature0Entity.class;
+            case "4_4" -> Width4Feature4Entity.class;
+            case "4_16" -> Width4Feature16Entity.class;
+            case "16_0" -> Width16Feature0Entity.class;
+            case "16_4" -> Width16Feature4Entity.class;
+            case "16_16" -> Width16Feature16Entity.class;
+            default -> throw new IllegalArgumentException("unsupported entity shape: " + key);
+        };
+    }
+
+    /**
+     * 创建并填充实体，所有字段都非空
+     *
+     * @param entityClass        实体类
+     * @param featurePayloadSize 每个feature字段的字符串长度
+     * @param seed               用于区分不同实体的序号
+     * @return 实体
+     */
+    public static <T> T newEntity(Class<T> entityClass, int featurePayloadSize, long seed) {
+        try {
+            T entity = entityClass.getDeclaredConstructor().newInstance();
+            String payload = "x".repeat(featurePayloadSize);
+            for (Field field : entityClass.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                field.set(entity, sampleValue(field, payload, seed));
+            }
+            return entity;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 把parseEntity的结果转换成JDBC驱动返回的样子，作为convertToEntity的输入
+     *
+     * @param parsed parseEntity的结果
+     * @return 模拟的数据库行
+     */
+    public static Map<String, Object> toRow(Map<String, Object> parsed) {
+        Map<String, Object> row = new HashMap<>();
+        parsed.forEach((key, value) -> row.put(key, value instanceof LocalDateTime time ? Timestamp.valueOf(time) : value));
+        return row;
+    }
+
+    private static Object sampleValue(Field field, String payload, long seed) {
+        Class<?> type = field.getType();
+        if (field.getName().startsWith("feature")) {
+            return payload;
+        } else if (type == Long.class) {
+            return seed;
+        } else if (type == Integer.class) {
+            return (int) (seed % 100);
+        } else if (type == String.class) {
+            return field.getName() + "_" + seed;
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+        } else if (type == BigDecimal.class) {
+            return BigDecimal.valueOf(seed, 2);
+        } else if (type == Double.class) {
+            return seed / 3.0;
+        }
+        throw new IllegalArgumentException("unsupported field type: " + type);
+    }
+}
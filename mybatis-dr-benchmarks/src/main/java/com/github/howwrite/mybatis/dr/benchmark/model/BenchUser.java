@@ -0,0 +1,36 @@
+package com.github.howwrite.mybatis.dr.benchmark.model;
+
+import com.github.howwrite.annotation.DrColumn;
+import com.github.howwrite.annotation.DrTable;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 端到端基准测试实体
+ */
+@Data
+@DrTable("bench_user")
+public class BenchUser {
+
+    @DrColumn("id")
+    private Long id;
+
+    @DrColumn("name")
+    private String name;
+
+    @DrColumn("age")
+    private Integer age;
+
+    @DrColumn("email")
+    private String email;
+
+    @DrColumn(value = "address", query = false)
+    private String address;
+
+    @DrColumn("created_time")
+    private LocalDateTime createdTime;
+
+    @DrColumn("updated_time")
+    private LocalDateTime updatedTime;
+}
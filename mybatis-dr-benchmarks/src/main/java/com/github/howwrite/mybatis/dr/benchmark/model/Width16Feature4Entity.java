@@ -0,0 +1,72 @@
+package com.github.howwrite.mybatis.dr.benchmark.model;
+
+import com.github.howwrite.annotation.DrColumn;
+import com.github.howwrite.annotation.DrTable;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 16个独立列、4个feature字段的基准测试实体
+ */
+@Data
+@DrTable("bench_w16_f4")
+public class Width16Feature4Entity {
+
+    @DrColumn("id")
+    private Long id;
+
+    @DrColumn("name")
+    private String name;
+
+    @DrColumn("age")
+    private Integer age;
+
+    @DrColumn("created_time")
+    private LocalDateTime createdTime;
+
+    @DrColumn("updated_time")
+    private LocalDateTime updatedTime;
+
+    @DrColumn("score")
+    private Long score;
+
+    @DrColumn("status")
+    private Integer status;
+
+    @DrColumn("email")
+    private String email;
+
+    @DrColumn("amount")
+    private BigDecimal amount;
+
+    @DrColumn("last_login_time")
+    private LocalDateTime lastLoginTime;
+
+    @DrColumn("nickname")
+    private String nickname;
+
+    @DrColumn("level")
+    private Integer level;
+
+    @DrColumn("balance")
+    private Long balance;
+
+    @DrColumn("phone")
+    private String phone;
+
+    @DrColumn("rate")
+    private Double rate;
+
+    @DrColumn("remark")
+    private String remark;
+
+    private String feature1;
+
+    private String feature2;
+
+    private String feature3;
+
+    private String feature4;
+}
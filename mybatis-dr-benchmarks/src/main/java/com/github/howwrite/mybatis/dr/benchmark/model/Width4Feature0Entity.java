@@ -0,0 +1,27 @@
+package com.github.howwrite.mybatis.dr.benchmark.model;
+
+import com.github.howwrite.annotation.DrColumn;
+import com.github.howwrite.annotation.DrTable;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 4个独立列、0个feature字段的基准测试实体
+ */
+@Data
+@DrTable("bench_w4_f0")
+public class Width4Feature0Entity {
+
+    @DrColumn("id")
+    private Long id;
+
+    @DrColumn("name")
+    private String name;
+
+    @DrColumn("age")
+    private Integer age;
+
+    @DrColumn("created_time")
+    private LocalDateTime createdTime;
+}
@@ -0,0 +1,59 @@
+package com.github.howwrite.mybatis.dr.benchmark.model;
+
+import com.github.howwrite.annotation.DrColumn;
+import com.github.howwrite.annotation.DrTable;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 4个独立列、16个feature字段的基准测试实体
+ */
+@Data
+@DrTable("bench_w4_f16")
+public class Width4Feature16Entity {
+
+    @DrColumn("id")
+    private Long id;
+
+    @DrColumn("name")
+    private String name;
+
+    @DrColumn("age")
+    private Integer age;
+
+    @DrColumn("created_time")
+    private LocalDateTime createdTime;
+
+    private String feature1;
+
+    private String feature2;
+
+    private String feature3;
+
+    private String feature4;
+
+    private String feature5;
+
+    private String feature6;
+
+    private String feature7;
+
+    private String feature8;
+
+    private String feature9;
+
+    private String feature10;
+
+    private String feature11;
+
+    private String feature12;
+
+    private String feature13;
+
+    private String feature14;
+
+    private String feature15;
+
+    private String feature16;
+}
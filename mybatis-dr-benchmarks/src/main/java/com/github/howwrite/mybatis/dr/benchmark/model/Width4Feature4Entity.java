@@ -0,0 +1,35 @@
+package com.github.howwrite.mybatis.dr.benchmark.model;
+
+import com.github.howwrite.annotation.DrColumn;
+import com.github.howwrite.annotation.DrTable;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 4个独立列、4个feature字段的基准测试实体
+ */
+@Data
+@DrTable("bench_w4_f4")
+public class Width4Feature4Entity {
+
+    @DrColumn("id")
+    private Long id;
+
+    @DrColumn("name")
+    private String name;
+
+    @DrColumn("age")
+    private Integer age;
+
+    @DrColumn("created_time")
+    private LocalDateTime createdTime;
+
+    private String feature1;
+
+    private String feature2;
+
+    private String feature3;
+
+    private String feature4;
+}
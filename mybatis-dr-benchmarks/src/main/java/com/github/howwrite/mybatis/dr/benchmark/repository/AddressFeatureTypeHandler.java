@@ -0,0 +1,54 @@
+package com.github.howwrite.mybatis.dr.benchmark.repository;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * 手写Mapper中常见的JSON列处理方式：address字段读写feature列中的{"address": "..."}
+ *
+ * @author mybatis-dr
+ */
+public class AddressFeatureTypeHandler extends BaseTypeHandler<String> {
+
+    static final String ADDRESS_KEY = "address";
+
+    static String toFeature(String address) {
+        return address == null ? null : JSON.toJSONString(Map.of(ADDRESS_KEY, address));
+    }
+
+    static String fromFeature(String feature) {
+        if (feature == null || feature.isEmpty()) {
+            return null;
+        }
+        JSONObject jsonObject = JSON.parseObject(feature);
+        return jsonObject == null ? null : jsonObject.getString(ADDRESS_KEY);
+    }
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType) throws SQLException {
+        ps.setString(i, toFeature(parameter));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return fromFeature(rs.getString(columnName));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return fromFeature(rs.getString(columnIndex));
+    }
+
+    @Override
+    public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return fromFeature(cs.getString(columnIndex));
+    }
+}
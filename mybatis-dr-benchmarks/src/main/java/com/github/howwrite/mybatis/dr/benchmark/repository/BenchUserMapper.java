@@ -0,0 +1,66 @@
+package com.github.howwrite.mybatis.dr.benchmark.repository;
+
+import com.github.howwrite.mybatis.dr.benchmark.model.BenchUser;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * 手写的MyBatis Mapper，作为DrRepository的对照组
+ *
+ * @author mybatis-dr
+ */
+@Mapper
+public interface BenchUserMapper {
+
+    @Insert("INSERT INTO `bench_user` (`name`, `age`, `email`, `feature`, `created_time`, `updated_time`) " +
+            "VALUES (#{name}, #{age}, #{email}, #{address, typeHandler=com.github.howwrite.mybatis.dr.benchmark.repository.AddressFeatureTypeHandler}, " +
+            "#{createdTime}, #{updatedTime})")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    int insert(BenchUser user);
+
+    @Insert("<script>INSERT INTO `bench_user` (`name`, `age`, `email`, `feature`, `created_time`, `updated_time`) VALUES " +
+            "<foreach collection='users' item='u' separator=','>" +
+            "(#{u.name}, #{u.age}, #{u.email}, #{u.address, typeHandler=com.github.howwrite.mybatis.dr.benchmark.repository.AddressFeatureTypeHandler}, " +
+            "#{u.createdTime}, #{u.updatedTime})" +
+            "</foreach></script>")
+    @Options(useGeneratedKeys = true, keyProperty = "users.id")
+    int batchInsert(@Param("users") List<BenchUser> users);
+
+    @Insert("<script>INSERT INTO `bench_user` (`id`, `name`, `age`, `email`, `feature`, `created_time`, `updated_time`) VALUES " +
+            "<foreach collection='users' item='u' separator=','>" +
+            "(#{u.id}, #{u.name}, #{u.age}, #{u.email}, #{u.address, typeHandler=com.github.howwrite.mybatis.dr.benchmark.repository.AddressFeatureTypeHandler}, " +
+            "#{u.createdTime}, #{u.updatedTime})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE `name` = values(`name`), `age` = values(`age`), `email` = values(`email`), " +
+            "`feature` = values(`feature`), `updated_time` = values(`updated_time`)</script>")
+    int batchInsertOrUpdate(@Param("users") List<BenchUser> users);
+
+    @Update("<script>UPDATE `bench_user` <set>" +
+            "<if test='user.name != null'>`name` = #{user.name},</if>" +
+            "<if test='user.age != null'>`age` = #{user.age},</if>" +
+            "<if test='user.email != null'>`email` = #{user.email},</if>" +
+            "<if test='user.address != null'>`feature` = #{user.address, typeHandler=com.github.howwrite.mybatis.dr.benchmark.repository.AddressFeatureTypeHandler},</if>" +
+            "`updated_time` = #{user.updatedTime}" +
+            "</set> WHERE `id` = #{id}</script>")
+    int update(@Param("user") BenchUser user, @Param("id") long id);
+
+    @Select("SELECT * FROM `bench_user` WHERE `age` = #{age}")
+    @Results(id = "benchUser", value = {
+            @Result(column = "id", property = "id", id = true),
+            @Result(column = "name", property = "name"),
+            @Result(column = "age", property = "age"),
+            @Result(column = "email", property = "email"),
+            @Result(column = "feature", property = "address", typeHandler = AddressFeatureTypeHandler.class),
+            @Result(column = "created_time", property = "createdTime"),
+            @Result(column = "updated_time", property = "updatedTime")
+    })
+    List<BenchUser> findByAge(@Param("age") int age);
+
+    @Select("SELECT * FROM `bench_user` WHERE `id` = #{id} LIMIT 1")
+    @ResultMap("benchUser")
+    BenchUser findById(@Param("id") long id);
+
+    @Select("SELECT COUNT(*) FROM `bench_user` WHERE `age` = #{age}")
+    long countByAge(@Param("age") int age);
+}
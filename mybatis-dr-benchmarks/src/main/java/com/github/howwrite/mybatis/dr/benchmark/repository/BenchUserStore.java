@@ -0,0 +1,31 @@
+package com.github.howwrite.mybatis.dr.benchmark.repository;
+
+import com.github.howwrite.mybatis.dr.benchmark.model.BenchUser;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 端到端基准测试的统一操作，分别由DrRepository、手写MyBatis Mapper、原生JDBC实现
+ *
+ * @author mybatis-dr
+ */
+public interface BenchUserStore {
+
+    int insert(BenchUser user);
+
+    int batchInsert(List<BenchUser> users);
+
+    int batchInsertOrUpdate(List<BenchUser> users);
+
+    /**
+     * 按id更新非空字段
+     */
+    int update(BenchUser user, long id);
+
+    List<BenchUser> findByAge(int age);
+
+    Optional<BenchUser> findById(long id);
+
+    long countByAge(int age);
+}
@@ -0,0 +1,26 @@
+package com.github.howwrite.mybatis.dr.benchmark.repository;
+
+import com.github.howwrite.mybatis.dr.starter.MyBatisDrConfiguration;
+import com.github.howwrite.treasure.spring.BagSpringConfiguration;
+import org.mybatis.spring.annotation.MapperScan;
+import org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration;
+import org.mybatis.spring.boot.autoconfigure.MybatisLanguageDriverAutoConfiguration;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationAutoConfiguration;
+
+/**
+ * 端到端基准测试的Spring配置，与starter测试一致使用H2(MODE=MySQL)
+ *
+ * @author mybatis-dr
+ */
+@SpringBootConfiguration
+@MapperScan("com.github.howwrite.mybatis.dr.benchmark.repository")
+@ImportAutoConfiguration({DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+        SqlInitializationAutoConfiguration.class, MybatisAutoConfiguration.class, MybatisLanguageDriverAutoConfiguration.class,
+        BagSpringConfiguration.class, MyBatisDrConfiguration.class})
+public class BenchmarkConfiguration {
+
+}
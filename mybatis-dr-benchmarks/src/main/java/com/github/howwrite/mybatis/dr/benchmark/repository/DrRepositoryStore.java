@@ -0,0 +1,51 @@
+package com.github.howwrite.mybatis.dr.benchmark.repository;
+
+import com.github.howwrite.mybatis.dr.benchmark.model.BenchUser;
+import com.github.howwrite.mybatis.dr.benchmark.model.BenchUserQuery;
+import com.github.howwrite.mybatis.dr.starter.DrRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 基于{@link DrRepository}的实现
+ *
+ * @author mybatis-dr
+ */
+public class DrRepositoryStore implements BenchUserStore {
+
+    @Override
+    public int insert(BenchUser user) {
+        return DrRepository.insert(user);
+    }
+
+    @Override
+    public int batchInsert(List<BenchUser> users) {
+        return DrRepository.batchInsert(users);
+    }
+
+    @Override
+    public int batchInsertOrUpdate(List<BenchUser> users) {
+        return DrRepository.batchInsertOrUpdate(users);
+    }
+
+    @Override
+    public int update(BenchUser user, long id) {
+        return DrRepository.update(user, new BenchUserQuery().eqId(id));
+    }
+
+    @Override
+    public List<BenchUser> findByAge(int age) {
+        return DrRepository.findByCondition(new BenchUserQuery().eqAge(age));
+    }
+
+    @Override
+    public Optional<BenchUser> findById(long id) {
+        return DrRepository.findOne(new BenchUserQuery().eqId(id));
+    }
+
+    @Override
+    public long countByAge(int age) {
+        return DrRepository.count(new BenchUserQuery().eqAge(age));
+    }
+}
@@ -0,0 +1,191 @@
+package com.github.howwrite.mybatis.dr.benchmark.repository;
+
+import com.github.howwrite.mybatis.dr.benchmark.model.BenchUser;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 原生JDBC实现，SQL形状与手写Mapper保持一致，作为性能下限的参照
+ *
+ * @author mybatis-dr
+ */
+public class JdbcStore implements BenchUserStore {
+
+    private static final String INSERT_PREFIX = "INSERT INTO `bench_user` (`name`, `age`, `email`, `feature`, `created_time`, `updated_time`) VALUES ";
+
+    private static final String UPSERT_PREFIX = "INSERT INTO `bench_user` (`id`, `name`, `age`, `email`, `feature`, `created_time`, `updated_time`) VALUES ";
+
+    private static final String UPSERT_SUFFIX = " ON DUPLICATE KEY UPDATE `name` = values(`name`), `age` = values(`age`), `email` = values(`email`), " +
+            "`feature` = values(`feature`), `updated_time` = values(`updated_time`)";
+
+    private final DataSource dataSource;
+
+    public JdbcStore(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public int insert(BenchUser user) {
+        return batchInsert(List.of(user));
+    }
+
+    @Override
+    public int batchInsert(List<BenchUser> users) {
+        String sql = INSERT_PREFIX + placeholders(users.size(), 6);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            LocalDateTime now = LocalDateTime.now();
+            int index = 1;
+            for (BenchUser user : users) {
+                user.setCreatedTime(now);
+                user.setUpdatedTime(now);
+                index = bindRow(ps, index, user);
+            }
+            int rows = ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (int i = 0; i < users.size() && keys.next(); i++) {
+                    users.get(i).setId(keys.getLong(1));
+                }
+            }
+            return rows;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int batchInsertOrUpdate(List<BenchUser> users) {
+        String sql = UPSERT_PREFIX + placeholders(users.size(), 7) + UPSERT_SUFFIX;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            LocalDateTime now = LocalDateTime.now();
+            int index = 1;
+            for (BenchUser user : users) {
+                user.setCreatedTime(now);
+                user.setUpdatedTime(now);
+                ps.setObject(index++, user.getId());
+                index = bindRow(ps, index, user);
+            }
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int update(BenchUser user, long id) {
+        StringBuilder sql = new StringBuilder("UPDATE `bench_user` SET ");
+        List<Object> values = new ArrayList<>();
+        if (user.getName() != null) {
+            sql.append("`name` = ?, ");
+            values.add(user.getName());
+        }
+        if (user.getAge() != null) {
+            sql.append("`age` = ?, ");
+            values.add(user.getAge());
+        }
+        if (user.getEmail() != null) {
+            sql.append("`email` = ?, ");
+            values.add(user.getEmail());
+        }
+        if (user.getAddress() != null) {
+            sql.append("`feature` = ?, ");
+            values.add(AddressFeatureTypeHandler.toFeature(user.getAddress()));
+        }
+        sql.append("`updated_time` = ? WHERE `id` = ?");
+        values.add(LocalDateTime.now());
+        values.add(id);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < values.size(); i++) {
+                ps.setObject(i + 1, values.get(i));
+            }
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public List<BenchUser> findByAge(int age) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT * FROM `bench_user` WHERE `age` = ?")) {
+            ps.setInt(1, age);
+            List<BenchUser> result = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapRow(rs));
+                }
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Optional<BenchUser> findById(long id) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT * FROM `bench_user` WHERE `id` = ? LIMIT 1")) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(mapRow(rs)) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public long countByAge(int age) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT COUNT(*) FROM `bench_user` WHERE `age` = ?")) {
+            ps.setInt(1, age);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String placeholders(int rows, int columns) {
+        String row = "(" + "?, ".repeat(columns - 1) + "?)";
+        StringBuilder sb = new StringBuilder(rows * (row.length() + 2));
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(row);
+        }
+        return sb.toString();
+    }
+
+    private static int bindRow(PreparedStatement ps, int index, BenchUser user) throws SQLException {
+        ps.setString(index++, user.getName());
+        ps.setObject(index++, user.getAge());
+        ps.setString(index++, user.getEmail());
+        ps.setString(index++, AddressFeatureTypeHandler.toFeature(user.getAddress()));
+        ps.setObject(index++, user.getCreatedTime());
+        ps.setObject(index++, user.getUpdatedTime());
+        return index;
+    }
+
+    private static BenchUser mapRow(ResultSet rs) throws SQLException {
+        BenchUser user = new BenchUser();
+        user.setId(rs.getLong("id"));
+        user.setName(rs.getString("name"));
+        user.setAge(rs.getObject("age", Integer.class));
+        user.setEmail(rs.getString("email"));
+        user.setAddress(AddressFeatureTypeHandler.fromFeature(rs.getString("feature")));
+        user.setCreatedTime(rs.getObject("created_time", LocalDateTime.class));
+        user.setUpdatedTime(rs.getObject("updated_time", LocalDateTime.class));
+        return user;
+    }
+}
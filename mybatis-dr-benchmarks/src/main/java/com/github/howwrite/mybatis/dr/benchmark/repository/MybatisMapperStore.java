@@ -0,0 +1,68 @@
+package com.github.howwrite.mybatis.dr.benchmark.repository;
+
+import com.github.howwrite.mybatis.dr.benchmark.model.BenchUser;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 基于手写{@link BenchUserMapper}的实现，时间字段与DrRepository一样由调用方填充
+ *
+ * @author mybatis-dr
+ */
+public class MybatisMapperStore implements BenchUserStore {
+
+    private final BenchUserMapper mapper;
+
+    public MybatisMapperStore(BenchUserMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public int insert(BenchUser user) {
+        fillTime(user, true);
+        return mapper.insert(user);
+    }
+
+    @Override
+    public int batchInsert(List<BenchUser> users) {
+        users.forEach(user -> fillTime(user, true));
+        return mapper.batchInsert(users);
+    }
+
+    @Override
+    public int batchInsertOrUpdate(List<BenchUser> users) {
+        users.forEach(user -> fillTime(user, true));
+        return mapper.batchInsertOrUpdate(users);
+    }
+
+    @Override
+    public int update(BenchUser user, long id) {
+        fillTime(user, false);
+        return mapper.update(user, id);
+    }
+
+    @Override
+    public List<BenchUser> findByAge(int age) {
+        return mapper.findByAge(age);
+    }
+
+    @Override
+    public Optional<BenchUser> findById(long id) {
+        return Optional.ofNullable(mapper.findById(id));
+    }
+
+    @Override
+    public long countByAge(int age) {
+        return mapper.countByAge(age);
+    }
+
+    private static void fillTime(BenchUser user, boolean create) {
+        LocalDateTime now = LocalDateTime.now();
+        user.setUpdatedTime(now);
+        if (create) {
+            user.setCreatedTime(now);
+        }
+    }
+}
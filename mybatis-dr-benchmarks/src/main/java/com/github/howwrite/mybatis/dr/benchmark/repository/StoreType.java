@@ -0,0 +1,33 @@
+package com.github.howwrite.mybatis.dr.benchmark.repository;
+
+import org.springframework.context.ApplicationContext;
+
+import javax.sql.DataSource;
+
+/**
+ * 参与对比的实现
+ *
+ * @author mybatis-dr
+ */
+public enum StoreType {
+    DR_REPOSITORY {
+        @Override
+        public BenchUserStore create(ApplicationContext context) {
+            return new DrRepositoryStore();
+        }
+    },
+    MYBATIS_MAPPER {
+        @Override
+        public BenchUserStore create(ApplicationContext context) {
+            return new MybatisMapperStore(context.getBean(BenchUserMapper.class));
+        }
+    },
+    JDBC {
+        @Override
+        public BenchUserStore create(ApplicationContext context) {
+            return new JdbcStore(context.getBean(DataSource.class));
+        }
+    };
+
+    public abstract BenchUserStore create(ApplicationContext context);
+}
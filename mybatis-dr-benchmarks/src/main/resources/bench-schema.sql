@@ -0,0 +1,11 @@
+CREATE TABLE if not exists bench_user
+(
+    `id`           bigint primary key auto_increment comment 'id',
+    `name`         VARCHAR(50) not null comment '用户名',
+    `age`          int comment '年龄',
+    `email`        VARCHAR(100) comment '邮箱',
+    `feature`      longtext comment '扩展内容',
+    `created_time` datetime    not null default CURRENT_TIMESTAMP comment '创建时间',
+    `updated_time` datetime    not null default CURRENT_TIMESTAMP comment '记录修改时间'
+);
+CREATE INDEX if not exists idx_bench_user_age ON bench_user (`age`);
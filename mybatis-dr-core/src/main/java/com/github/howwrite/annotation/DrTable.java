@@ -1,5 +1,7 @@
 package com.github.howwrite.annotation;
 
+import com.github.howwrite.constant.FeatureEncoding;
+
 import java.lang.annotation.*;
 
 /**
@@ -38,6 +40,18 @@ public @interface DrTable {
      */
     String featureColumnName() default "feature";
 
+    /**
+     * @return feature列的存储编码，JSONB时列类型需要是二进制
+     * `feature`      longblob        comment '特性'
+     */
+    FeatureEncoding featureEncoding() default FeatureEncoding.JSON;
+
+    /**
+     * @return feature列压缩的阈值，序列化后的长度（JSONB按字节数，JSON文本按字符数）超过该值时使用Deflate压缩，小于等于0时不压缩。
+     * 压缩后的数据带有头部标记，和未压缩的数据可以共存
+     */
+    int featureCompressThreshold() default 0;
+
     /**
      * 创建时间字段数据库中的列名
      * `created_time` datetime        not null default now() comment '创建时间'
@@ -55,4 +69,26 @@ public @interface DrTable {
      */
     boolean whenDuplicateUpdateCreatedTime() default false;
 
+    /**
+     * @return 按id缓存实体的最大数量，小于等于0时不缓存。只缓存纯id查询（eqId、inId）的结果，
+     * 通过仓库更新、删除时自动失效，其他应用实例或直接执行SQL的修改只能等待过期
+     */
+    int entityCacheSize() default 0;
+
+    /**
+     * @return 实体缓存写入后的过期秒数，小于等于0时不过期
+     */
+    long entityCacheTtlSeconds() default 60;
+
+    /**
+     * @return 缓存查询结果的最大条目数，小于等于0时不缓存。key为条件的SQL形状和绑定值，
+     * 通过仓库的任意写入都会使整张表的查询缓存失效，适用于读多写少的配置类表
+     */
+    int queryCacheSize() default 0;
+
+    /**
+     * @return 查询缓存写入后的过期秒数，小于等于0时不过期
+     */
+    long queryCacheTtlSeconds() default 60;
+
 } 
\ No newline at end of file
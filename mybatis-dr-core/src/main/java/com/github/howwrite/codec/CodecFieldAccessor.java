@@ -0,0 +1,30 @@
+package com.github.howwrite.codec;
+
+import com.github.howwrite.model.FieldAccessor;
+
+/**
+ * 基于生成的{@link EntityCodec}读写字段
+ *
+ * @author mybatis-dr
+ */
+public class CodecFieldAccessor<T> implements FieldAccessor {
+    private final EntityCodec<T> codec;
+    private final int index;
+
+    public CodecFieldAccessor(EntityCodec<T> codec, int index) {
+        this.codec = codec;
+        this.index = index;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object get(Object target) {
+        return codec.get((T) target, index);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void set(Object target, Object value) {
+        codec.set((T) target, index, value);
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.howwrite.codec;
+
+/**
+ * 实体编解码器，由注解处理器为每个{@code @DrTable}实体生成，类名为实体类名 + {@code Codec}
+ * <p>
+ * 通过直接调用getter/setter完成实体与列值的互转，存在时优先于反射使用
+ *
+ * @author mybatis-dr
+ */
+public interface EntityCodec<T> {
+
+    /**
+     * @return 新的实体实例
+     */
+    T newInstance();
+
+    /**
+     * @return 支持的字段名，数组下标即{@link #get(Object, int)}、{@link #set(Object, int, Object)}中的index
+     */
+    String[] fieldNames();
+
+    /**
+     * 读取字段值
+     *
+     * @param entity 实体
+     * @param index  字段下标
+     * @return 字段值，基本类型会被装箱
+     */
+    Object get(T entity, int index);
+
+    /**
+     * 写入字段值
+     *
+     * @param entity 实体
+     * @param index  字段下标
+     * @param value  字段值，类型需要与字段兼容
+     */
+    void set(T entity, int index, Object value);
+}
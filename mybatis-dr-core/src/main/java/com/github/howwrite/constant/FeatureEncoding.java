@@ -0,0 +1,18 @@
+package com.github.howwrite.constant;
+
+/**
+ * feature列的存储编码
+ *
+ * @author mybatis-dr
+ */
+public enum FeatureEncoding {
+    /**
+     * JSON文本，列类型为longtext
+     */
+    JSON,
+    /**
+     * fastjson2的JSONB二进制，列类型为longblob/varbinary。
+     * 读取时兼容切换前写入的JSON文本，不需要迁移历史数据
+     */
+    JSONB
+}
@@ -2,4 +2,49 @@ package com.github.howwrite.constant;
 
 public interface MybatisDrContent {
     String AUTO_GEN_ID_FIELD_NAME = "auto_gen_id";
+
+    /**
+     * 生成的实体编解码器类名后缀
+     */
+    String CODEC_CLASS_SUFFIX = "Codec";
+
+    /**
+     * 生成的实体仓库类名后缀
+     */
+    String REPOSITORY_CLASS_SUFFIX = "DrRepository";
+
+    /**
+     * 生成的实体仓库的父类，不在编译classpath中时不生成仓库
+     */
+    String TYPED_REPOSITORY_CLASS_NAME = "com.github.howwrite.mybatis.dr.starter.TypedDrRepository";
+
+    /**
+     * 参数中的表信息，存在时查询结果直接映射为实体
+     */
+    String TABLE_INFO_PARAM_NAME = "tableInfo";
+
+    /**
+     * 参数中数据库是否支持MySQL的JSON函数，为true时才在SQL中单独取出feature中的key
+     */
+    String JSON_FUNCTIONS_PARAM_NAME = "jsonFunctions";
+
+    /**
+     * 参数中的JDBC fetchSize，游标查询时设置到语句上
+     */
+    String FETCH_SIZE_PARAM_NAME = "fetchSize";
+
+    /**
+     * 单独查询feature中的key时结果列的别名前缀，后面接feature中的key
+     */
+    String FEATURE_KEY_ALIAS_PREFIX = "dr_feature__";
+
+    /**
+     * 分页查询中COUNT(*) OVER()结果列的别名
+     */
+    String TOTAL_COLUMN_ALIAS = "dr_total";
+
+    /**
+     * 参数中接收分页总数的long[1]，分页查询时由拦截器从结果集中写入，没有行时保持原值
+     */
+    String TOTAL_HOLDER_PARAM_NAME = "totalHolder";
 }
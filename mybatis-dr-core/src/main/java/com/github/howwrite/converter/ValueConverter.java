@@ -0,0 +1,18 @@
+package com.github.howwrite.converter;
+
+/**
+ * 针对单个字段解析好的反序列化方式，在获取表信息时确定，读取每个值时不再按字段类型逐个判断
+ *
+ * @author mybatis-dr
+ */
+@FunctionalInterface
+public interface ValueConverter {
+
+    /**
+     * 数据库值转Java对象
+     *
+     * @param value 数据库值，不为null
+     * @return 字段值
+     */
+    Object convert(Object value);
+}
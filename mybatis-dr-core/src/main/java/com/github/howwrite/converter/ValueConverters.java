@@ -0,0 +1,80 @@
+package com.github.howwrite.converter;
+
+import com.alibaba.fastjson2.JSON;
+import com.github.howwrite.treasure.core.utils.NumberUtils;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 按字段类型选择{@link ValueConverter}，默认转换器的结果与{@link DefaultConverter#deserialize}一致，
+ * 数值直接通过Number取值，不再经过字符串和BigDecimal
+ *
+ * @author mybatis-dr
+ */
+public class ValueConverters {
+
+    private ValueConverters() {
+    }
+
+    /**
+     * 解析字段的反序列化方式
+     *
+     * @param fieldType 字段类型
+     * @param converter 字段配置的转换器
+     * @return 反序列化方式
+     */
+    public static ValueConverter of(Type fieldType, DrConverter converter) {
+        if (converter.getClass() != DefaultConverter.class) {
+            return value -> converter.deserialize(fieldType, value);
+        }
+        if (fieldType == String.class) {
+            return Object::toString;
+        } else if (fieldType == int.class || fieldType == Integer.class) {
+            return value -> value instanceof Number number && isExact(number) ? (Object) number.intValue() : decimal(value).intValue();
+        } else if (fieldType == long.class || fieldType == Long.class) {
+            return value -> value instanceof Number number && isExact(number) ? (Object) number.longValue() : decimal(value).longValue();
+        } else if (fieldType == double.class || fieldType == Double.class) {
+            return value -> value instanceof Number number ? (Object) number.doubleValue() : decimal(value).doubleValue();
+        } else if (fieldType == float.class || fieldType == Float.class) {
+            return value -> value instanceof Number number ? (Object) number.floatValue() : decimal(value).floatValue();
+        } else if (fieldType == short.class || fieldType == Short.class) {
+            return value -> value instanceof Number number && isExact(number) ? (Object) number.shortValue() : decimal(value).shortValue();
+        } else if (fieldType == boolean.class || fieldType == Boolean.class) {
+            return value -> Boolean.valueOf(value.toString());
+        } else if (fieldType == char.class || fieldType == Character.class) {
+            return value -> value.toString().charAt(0);
+        } else if (fieldType == BigDecimal.class) {
+            return ValueConverters::decimal;
+        } else if (fieldType == LocalDateTime.class) {
+            return value -> value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : jsonConvert(fieldType, value);
+        } else if (fieldType == LocalDate.class) {
+            return value -> value instanceof java.sql.Date date ? date.toLocalDate()
+                    : value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toLocalDate() : jsonConvert(fieldType, value);
+        }
+        return value -> jsonConvert(fieldType, value);
+    }
+
+    /**
+     * 整数类型可以直接取值，小数需要和原来一样经过BigDecimal截断
+     */
+    private static boolean isExact(Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Short
+                || number instanceof Byte || number instanceof BigInteger;
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return NumberUtils.buildBigDecimal(value.toString());
+    }
+
+    private static Object jsonConvert(Type fieldType, Object value) {
+        return JSON.parseObject(JSON.toJSONString(value), fieldType);
+    }
+}
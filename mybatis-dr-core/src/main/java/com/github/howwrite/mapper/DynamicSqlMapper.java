@@ -1,14 +1,16 @@
 package com.github.howwrite.mapper;
 
-import org.apache.ibatis.annotations.MapKey;
-import org.apache.ibatis.annotations.Mapper;
-import org.apache.ibatis.annotations.Param;
+import com.github.howwrite.constant.MybatisDrContent;
+import com.github.howwrite.sql.DrLanguageDriver;
+import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 import java.util.List;
 import java.util.Map;
 
 /**
- * 动态SQL映射器接口，定义与数据库交互的方法
+ * 动态SQL映射器接口，定义与数据库交互的方法，SQL由{@link DrLanguageDriver}根据注解中的语句类型直接渲染
  *
  * @author mybatis-dr
  */
@@ -21,6 +23,9 @@ public interface DynamicSqlMapper {
      * @param params 参数Map，包含表名和实体对象
      * @return 影响的行数
      */
+    @Insert("INSERT")
+    @Lang(DrLanguageDriver.class)
+    @Options(useGeneratedKeys = true, keyProperty = MybatisDrContent.AUTO_GEN_ID_FIELD_NAME)
     int insert(@Param("params") Map<String, Object> params);
 
     /**
@@ -29,6 +34,9 @@ public interface DynamicSqlMapper {
      * @param params 参数Map，包含表名和实体对象
      * @return 影响的行数
      */
+    @Insert("INSERT_OR_UPDATE")
+    @Lang(DrLanguageDriver.class)
+    @Options(useGeneratedKeys = true, keyProperty = MybatisDrContent.AUTO_GEN_ID_FIELD_NAME)
     int insertOrUpdate(@Param("params") Map<String, Object> params);
 
     /**
@@ -37,6 +45,9 @@ public interface DynamicSqlMapper {
      * @param params 参数Map，包含表名和实体对象列表
      * @return 影响的行数
      */
+    @Insert("BATCH_INSERT")
+    @Lang(DrLanguageDriver.class)
+    @Options(useGeneratedKeys = true, keyProperty = "entities." + MybatisDrContent.AUTO_GEN_ID_FIELD_NAME)
     int batchInsert(@Param("params") Map<String, Object> params, @Param("entities") List<Map<String, Object>> entities);
 
     /**
@@ -45,6 +56,8 @@ public interface DynamicSqlMapper {
      * @param params 参数Map，包含表名和实体对象列表
      * @return 影响的行数
      */
+    @Insert("BATCH_INSERT_OR_UPDATE")
+    @Lang(DrLanguageDriver.class)
     int batchInsertOrUpdate(@Param("params") Map<String, Object> params, @Param("entities") List<Map<String, Object>> entities);
 
     /**
@@ -53,14 +66,28 @@ public interface DynamicSqlMapper {
      * @param params 参数Map，包含表名、实体对象和主键
      * @return 影响的行数
      */
+    @Update("UPDATE")
+    @Lang(DrLanguageDriver.class)
     int update(@Param("params") Map<String, Object> params);
 
+    /**
+     * 更新记录，feature列中只写入featurePatch中的key，其他key保持不变
+     *
+     * @param params 参数Map，包含表名、实体对象、feature列名和featurePatch
+     * @return 影响的行数
+     */
+    @Update("PATCH_UPDATE")
+    @Lang(DrLanguageDriver.class)
+    int patchUpdate(@Param("params") Map<String, Object> params);
+
     /**
      * 根据条件删除记录
      *
      * @param params 参数Map，包含表名和条件对象
      * @return 影响的行数
      */
+    @Delete("DELETE")
+    @Lang(DrLanguageDriver.class)
     int delete(@Param("params") Map<String, Object> params);
 
     /**
@@ -69,6 +96,8 @@ public interface DynamicSqlMapper {
      * @param params 参数Map，包含表名、实体对象和主键
      * @return 影响的行数
      */
+    @Update("LOGIC_DELETE")
+    @Lang(DrLanguageDriver.class)
     int logicDelete(@Param("params") Map<String, Object> params);
 
     /**
@@ -78,8 +107,44 @@ public interface DynamicSqlMapper {
      * @return 实体对象列表
      */
     @MapKey("id")
+    @Select("SELECT")
+    @Lang(DrLanguageDriver.class)
     List<Map<String,Object>> findByCondition(@Param("params") Map<String, Object> params);
 
+    /**
+     * 根据条件查询实体，结果集由{@link com.github.howwrite.plugin.EntityResultSetInterceptor}直接映射为实体
+     *
+     * @param params 参数Map，包含表名、条件对象和表信息
+     * @return 实体对象列表
+     */
+    @Select("SELECT")
+    @Lang(DrLanguageDriver.class)
+    @Options(flushCache = Options.FlushCachePolicy.TRUE, useCache = false)
+    List<Object> findEntityByCondition(@Param("params") Map<String, Object> params);
+
+    /**
+     * 根据条件查询一页实体，结果集由{@link com.github.howwrite.plugin.EntityResultSetInterceptor}直接映射为实体，
+     * 总数写入参数中的{@link MybatisDrContent#TOTAL_HOLDER_PARAM_NAME}
+     *
+     * @param params 参数Map，包含表名、条件对象、表信息和总数holder
+     * @return 实体对象列表
+     */
+    @Select("SELECT_PAGE")
+    @Lang(DrLanguageDriver.class)
+    @Options(flushCache = Options.FlushCachePolicy.TRUE, useCache = false)
+    List<Object> findEntityPageByCondition(@Param("params") Map<String, Object> params);
+
+    /**
+     * 根据条件游标查询实体，调用方负责关闭游标，并且在游标消费完之前不能关闭SqlSession
+     *
+     * @param params 参数Map，包含表名、条件对象、表信息和fetchSize
+     * @return 实体游标
+     */
+    @Select("SELECT")
+    @Lang(DrLanguageDriver.class)
+    @Options(flushCache = Options.FlushCachePolicy.TRUE, useCache = false, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<Object> cursorEntityByCondition(@Param("params") Map<String, Object> params);
+
 
     /**
      * 根据条件查询记录数
@@ -87,5 +152,27 @@ public interface DynamicSqlMapper {
      * @param params 参数Map，包含表名和条件对象
      * @return 记录数
      */
+    @Select("COUNT")
+    @Lang(DrLanguageDriver.class)
     long count(@Param("params") Map<String, Object> params);
+
+    /**
+     * 是否存在满足条件的记录
+     *
+     * @param params 参数Map，包含表名和条件对象
+     * @return 存在时为1，否则为null
+     */
+    @Select("EXISTS")
+    @Lang(DrLanguageDriver.class)
+    Integer exists(@Param("params") Map<String, Object> params);
+
+    /**
+     * EXPLAIN查询语句，用于获取优化器估算的记录数
+     *
+     * @param params 参数Map，包含表名和条件对象
+     * @return EXPLAIN的结果行
+     */
+    @Select("EXPLAIN_COUNT")
+    @Lang(DrLanguageDriver.class)
+    List<Map<String, Object>> explainCount(@Param("params") Map<String, Object> params);
 } 
\ No newline at end of file
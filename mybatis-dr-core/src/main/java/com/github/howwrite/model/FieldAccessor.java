@@ -0,0 +1,21 @@
+package com.github.howwrite.model;
+
+/**
+ * 字段读写器，屏蔽反射、生成代码等不同的访问方式
+ *
+ * @author mybatis-dr
+ */
+public interface FieldAccessor {
+
+    /**
+     * @param target 实体
+     * @return 字段值
+     */
+    Object get(Object target);
+
+    /**
+     * @param target 实体
+     * @param value  字段值
+     */
+    void set(Object target, Object value);
+}
@@ -1,31 +1,78 @@
 package com.github.howwrite.model;
 
 import com.github.howwrite.converter.DrConverter;
+import com.github.howwrite.converter.ValueConverter;
 
 import java.lang.reflect.Field;
 
 public class FieldInfo {
-    private Field field;
-    private Class<? extends DrConverter> drConverterClass;
+    private final Field field;
+    private final Class<? extends DrConverter> drConverterClass;
+    /**
+     * 字段读写器，优先使用生成的编解码器
+     */
+    private final FieldAccessor accessor;
+
+    /**
+     * 获取表信息时解析好的反序列化方式，为null时在使用时解析
+     */
+    private final ValueConverter valueConverter;
+
+    /**
+     * 按值类型缓存的兼容性判断，为null时在使用时判断
+     */
+    private final ClassValue<Boolean> valueCompatibility;
 
     public FieldInfo(Field field, Class<? extends DrConverter> drConverterClass) {
+        this(field, drConverterClass, new ReflectFieldAccessor(field));
+    }
+
+    public FieldInfo(Field field, Class<? extends DrConverter> drConverterClass, FieldAccessor accessor) {
+        this(field, drConverterClass, accessor, null, null);
+    }
+
+    public FieldInfo(Field field, Class<? extends DrConverter> drConverterClass, FieldAccessor accessor,
+                     ValueConverter valueConverter, ClassValue<Boolean> valueCompatibility) {
         this.field = field;
         this.drConverterClass = drConverterClass;
+        this.accessor = accessor;
+        this.valueConverter = valueConverter;
+        this.valueCompatibility = valueCompatibility;
     }
 
     public Field getField() {
         return field;
     }
 
-    public void setField(Field field) {
-        this.field = field;
-    }
-
     public Class<? extends DrConverter> getDrConverterClass() {
         return drConverterClass;
     }
 
-    public void setDrConverterClass(Class<? extends DrConverter> drConverterClass) {
-        this.drConverterClass = drConverterClass;
+    public FieldAccessor getAccessor() {
+        return accessor;
+    }
+
+    public ValueConverter getValueConverter() {
+        return valueConverter;
+    }
+
+    public ClassValue<Boolean> getValueCompatibility() {
+        return valueCompatibility;
+    }
+
+    /**
+     * @param target 实体
+     * @return 字段值
+     */
+    public Object getValue(Object target) {
+        return accessor.get(target);
+    }
+
+    /**
+     * @param target 实体
+     * @param value  字段值
+     */
+    public void setValue(Object target, Object value) {
+        accessor.set(target, value);
     }
 }
@@ -0,0 +1,29 @@
+package com.github.howwrite.model;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 基于LambdaMetafactory生成的getter/setter读写字段，调用点可以被JIT内联
+ *
+ * @author mybatis-dr
+ */
+public class LambdaFieldAccessor implements FieldAccessor {
+    private final Function<Object, Object> getter;
+    private final BiConsumer<Object, Object> setter;
+
+    public LambdaFieldAccessor(Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    @Override
+    public Object get(Object target) {
+        return getter.apply(target);
+    }
+
+    @Override
+    public void set(Object target, Object value) {
+        setter.accept(target, value);
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.howwrite.model;
+
+import java.lang.reflect.Field;
+
+/**
+ * 基于反射读写字段，没有生成代码时使用
+ *
+ * @author mybatis-dr
+ */
+public class ReflectFieldAccessor implements FieldAccessor {
+    private final Field field;
+
+    public ReflectFieldAccessor(Field field) {
+        this.field = field;
+    }
+
+    @Override
+    public Object get(Object target) {
+        try {
+            return field.get(target);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Error getting field value: " + field.getName(), e);
+        }
+    }
+
+    @Override
+    public void set(Object target, Object value) {
+        try {
+            field.set(target, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Error setting field value: " + field.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.howwrite.plugin;
+
+import com.github.howwrite.constant.MybatisDrContent;
+import com.github.howwrite.mapper.DynamicSqlMapper;
+import com.github.howwrite.query.QueryCondition;
+import com.github.howwrite.util.EntityCursor;
+import com.github.howwrite.util.EntityHelper;
+import com.github.howwrite.util.EntityRowMapper;
+import com.github.howwrite.util.TableInfo;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 接管{@link DynamicSqlMapper#findEntityByCondition(Map)}、{@link DynamicSqlMapper#findEntityPageByCondition(Map)}
+ * 和{@link DynamicSqlMapper#cursorEntityByCondition(Map)}的结果集处理，直接把结果集映射为实体，并按参数设置游标查询的fetchSize。
+ * <p>
+ * Spring Boot中由starter注册为Bean，自动配置的SqlSessionFactory会加载它；自定义SqlSessionFactory或不使用Spring时，
+ * 需要通过{@code configuration.addInterceptor(new EntityResultSetInterceptor())}注册一次
+ *
+ * @author mybatis-dr
+ */
+@Intercepts({
+        @Signature(type = ResultSetHandler.class, method = "handleResultSets", args = {Statement.class}),
+        @Signature(type = ResultSetHandler.class, method = "handleCursorResultSets", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class})
+})
+public class EntityResultSetInterceptor implements Interceptor {
+
+    private static final String FIND_ENTITY_STATEMENT_ID = DynamicSqlMapper.class.getName() + ".findEntityByCondition";
+
+    private static final String FIND_ENTITY_PAGE_STATEMENT_ID = DynamicSqlMapper.class.getName() + ".findEntityPageByCondition";
+
+    private static final String CURSOR_ENTITY_STATEMENT_ID = DynamicSqlMapper.class.getName() + ".cursorEntityByCondition";
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (invocation.getTarget() instanceof StatementHandler statementHandler) {
+            return prepare(invocation, statementHandler);
+        }
+        MetaObject handler = SystemMetaObject.forObject(invocation.getTarget());
+        // 多个插件时目标对象是代理，取出最内层的DefaultResultSetHandler
+        while (handler.hasGetter("h")) {
+            handler = SystemMetaObject.forObject(handler.getValue("h.target"));
+        }
+        MappedStatement mappedStatement = (MappedStatement) handler.getValue("mappedStatement");
+        boolean cursor = "handleCursorResultSets".equals(invocation.getMethod().getName());
+        boolean page = !cursor && FIND_ENTITY_PAGE_STATEMENT_ID.equals(mappedStatement.getId());
+        if (!page && !(cursor ? CURSOR_ENTITY_STATEMENT_ID : FIND_ENTITY_STATEMENT_ID).equals(mappedStatement.getId())) {
+            return invocation.proceed();
+        }
+        Map<?, ?> params = findParams((ParameterHandler) handler.getValue("parameterHandler"));
+        if (params == null || !(params.get(MybatisDrContent.TABLE_INFO_PARAM_NAME) instanceof TableInfo<?> tableInfo)) {
+            return invocation.proceed();
+        }
+
+        Statement statement = (Statement) invocation.getArgs()[0];
+        Configuration configuration = (Configuration) handler.getValue("configuration");
+        ResultSet resultSet = statement.getResultSet();
+        if (resultSet == null) {
+            return cursor ? invocation.proceed() : new ArrayList<>();
+        }
+        Set<String> featureKeys = EntityHelper.selectedFeatureKeys((QueryCondition<?>) params.get("condition"), tableInfo);
+        if (cursor) {
+            return new EntityCursor<>(resultSet, new EntityRowMapper<>(resultSet, tableInfo, configuration, featureKeys));
+        }
+        try (resultSet) {
+            EntityRowMapper<?> rowMapper = new EntityRowMapper<>(resultSet, tableInfo, configuration, featureKeys);
+            if (!page) {
+                return rowMapper.mapRows(resultSet);
+            }
+            // 每行的总数相同，从第一行读取
+            List<Object> result = new ArrayList<>();
+            while (resultSet.next()) {
+                if (result.isEmpty() && params.get(MybatisDrContent.TOTAL_HOLDER_PARAM_NAME) instanceof long[] totalHolder) {
+                    totalHolder[0] = resultSet.getLong(MybatisDrContent.TOTAL_COLUMN_ALIAS);
+                }
+                result.add(rowMapper.mapRow(resultSet));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 游标查询按参数中的fetchSize设置语句，MySQL需要在连接上开启useCursorFetch才会分批拉取
+     */
+    private Object prepare(Invocation invocation, StatementHandler statementHandler) throws Throwable {
+        Object statement = invocation.proceed();
+        Map<?, ?> params = findParams(statementHandler.getParameterHandler());
+        if (params != null && params.get(MybatisDrContent.FETCH_SIZE_PARAM_NAME) instanceof Integer fetchSize
+                && statement instanceof Statement jdbcStatement) {
+            jdbcStatement.setFetchSize(fetchSize);
+        }
+        return statement;
+    }
+
+    private static Map<?, ?> findParams(ParameterHandler parameterHandler) {
+        if (!(parameterHandler.getParameterObject() instanceof Map<?, ?> paramMap)
+                || !paramMap.containsKey("params")
+                || !(paramMap.get("params") instanceof Map<?, ?> params)) {
+            return null;
+        }
+        return params;
+    }
+}
@@ -1,15 +1,18 @@
 package com.github.howwrite.processor;
 
 import com.github.howwrite.annotation.DrColumn;
+import com.github.howwrite.annotation.DrColumnIgnore;
 import com.github.howwrite.annotation.DrTable;
+import com.github.howwrite.constant.MybatisDrContent;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
 import javax.lang.model.SourceVersion;
-import javax.lang.model.element.Element;
-import javax.lang.model.element.ElementKind;
-import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.*;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
 import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
 import java.io.IOException;
@@ -71,6 +74,22 @@ public class QueryClassProcessor extends AbstractProcessor {
                 processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
                         "Error generating query class: " + e.getMessage(), element);
             }
+
+            // 依赖了starter时生成实体仓库
+            try {
+                generateRepositoryClass(classElement, packageName, className, queryClassName);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Error generating repository class: " + e.getMessage(), element);
+            }
+
+            // 生成编解码器，无法直接访问的实体运行时回退到反射
+            try {
+                generateCodecClass(classElement, packageName, className);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Error generating codec class: " + e.getMessage(), element);
+            }
         }
 
         return true;
@@ -121,6 +140,18 @@ public class QueryClassProcessor extends AbstractProcessor {
                 generateFieldQueryMethods(out, drTable, queryClassName, field);
             }
 
+            // 游标分页方法，排序字段以id结尾
+            FieldInfo idField = queryableFields.stream()
+                    .filter(field -> field.isQueryField() && field.getColumnName().equals(drTable.idColumnName()))
+                    .findFirst().orElse(null);
+            if (idField != null) {
+                for (FieldInfo field : queryableFields) {
+                    if (field.isQueryField() && !field.getFieldType().contains("<")) {
+                        generateSeekMethods(out, queryClassName, field, idField);
+                    }
+                }
+            }
+
             // 类结束
             out.println("}");
         }
@@ -138,11 +169,16 @@ public class QueryClassProcessor extends AbstractProcessor {
         String capitalizedFieldName = capitalize(fieldName);
         String fieldType = getSimpleTypeName(field.getFieldType());
 
-        out.println("   public static SelectKey select" + capitalizedFieldName + " = new SelectKey(\"" + (field.isQueryField() ? columnName : drTable.featureColumnName()) + "\");");
+        if (field.isQueryField()) {
+            out.println("   public static SelectKey select" + capitalizedFieldName + " = new SelectKey(\"" + columnName + "\");");
+        } else {
+            // JSON字段查询feature列，同时记录需要解析的key
+            out.println("   public static SelectKey select" + capitalizedFieldName + " = new SelectKey(\"" + drTable.featureColumnName() + "\", \"" + featureKey(field) + "\");");
+        }
         out.println();
 
-        if (!field.isQueryField()) {
-            // 非查询字段没有后面的条件
+        if (!field.isQueryField() && !isStringType(field.getFieldType()) && !isNumberType(field.getFieldType())) {
+            // feature中只有字符串和数值字段生成条件，其他类型JSON函数取出的值无法和参数直接比较
             return;
         }
 
@@ -151,7 +187,7 @@ public class QueryClassProcessor extends AbstractProcessor {
         out.println("     * " + fieldName + " 等于");
         out.println("     */");
         out.println("    public " + queryClassName + " eq" + capitalizedFieldName + "(" + fieldType + " value) {");
-        out.println("        return (" + queryClassName + ") eq(\"" + columnName + "\", value);");
+        out.println("        return (" + queryClassName + ") " + conditionCall(drTable, field, "eq", "OPERATOR_EQ", "value", "value") + ";");
         out.println("    }");
         out.println();
 
@@ -160,7 +196,7 @@ public class QueryClassProcessor extends AbstractProcessor {
         out.println("     * " + fieldName + " 不等于");
         out.println("     */");
         out.println("    public " + queryClassName + " ne" + capitalizedFieldName + "(" + fieldType + " value) {");
-        out.println("        return (" + queryClassName + ") ne(\"" + columnName + "\", value);");
+        out.println("        return (" + queryClassName + ") " + conditionCall(drTable, field, "ne", "OPERATOR_NE", "value", "value") + ";");
         out.println("    }");
         out.println();
 
@@ -171,7 +207,7 @@ public class QueryClassProcessor extends AbstractProcessor {
             out.println("     * " + fieldName + " 大于");
             out.println("     */");
             out.println("    public " + queryClassName + " gt" + capitalizedFieldName + "(" + fieldType + " value) {");
-            out.println("        return (" + queryClassName + ") gt(\"" + columnName + "\", value);");
+            out.println("        return (" + queryClassName + ") " + conditionCall(drTable, field, "gt", "OPERATOR_GT", "value", "value") + ";");
             out.println("    }");
             out.println();
 
@@ -180,7 +216,7 @@ public class QueryClassProcessor extends AbstractProcessor {
             out.println("     * " + fieldName + " 大于等于");
             out.println("     */");
             out.println("    public " + queryClassName + " ge" + capitalizedFieldName + "(" + fieldType + " value) {");
-            out.println("        return (" + queryClassName + ") ge(\"" + columnName + "\", value);");
+            out.println("        return (" + queryClassName + ") " + conditionCall(drTable, field, "ge", "OPERATOR_GE", "value", "value") + ";");
             out.println("    }");
             out.println();
 
@@ -189,7 +225,7 @@ public class QueryClassProcessor extends AbstractProcessor {
             out.println("     * " + fieldName + " 小于");
             out.println("     */");
             out.println("    public " + queryClassName + " lt" + capitalizedFieldName + "(" + fieldType + " value) {");
-            out.println("        return (" + queryClassName + ") lt(\"" + columnName + "\", value);");
+            out.println("        return (" + queryClassName + ") " + conditionCall(drTable, field, "lt", "OPERATOR_LT", "value", "value") + ";");
             out.println("    }");
             out.println();
 
@@ -198,7 +234,7 @@ public class QueryClassProcessor extends AbstractProcessor {
             out.println("     * " + fieldName + " 小于等于");
             out.println("     */");
             out.println("    public " + queryClassName + " le" + capitalizedFieldName + "(" + fieldType + " value) {");
-            out.println("        return (" + queryClassName + ") le(\"" + columnName + "\", value);");
+            out.println("        return (" + queryClassName + ") " + conditionCall(drTable, field, "le", "OPERATOR_LE", "value", "value") + ";");
             out.println("    }");
             out.println();
         }
@@ -207,8 +243,8 @@ public class QueryClassProcessor extends AbstractProcessor {
         out.println("    /**");
         out.println("     * " + fieldName + " 包含在");
         out.println("     */");
-        out.println("    public " + queryClassName + " in" + capitalizedFieldName + "(Collection<" + fieldType + "> values) {");
-        out.println("        return (" + queryClassName + ") in(\"" + columnName + "\", values);");
+        out.println("    public " + queryClassName + " in" + capitalizedFieldName + "(Collection<" + boxedTypeName(fieldType) + "> values) {");
+        out.println("        return (" + queryClassName + ") " + conditionCall(drTable, field, "in", "OPERATOR_IN", "values", "values") + ";");
         out.println("    }");
         out.println();
 
@@ -216,8 +252,8 @@ public class QueryClassProcessor extends AbstractProcessor {
         out.println("    /**");
         out.println("     * " + fieldName + " 不包含在");
         out.println("     */");
-        out.println("    public " + queryClassName + " notIn" + capitalizedFieldName + "(Collection<" + fieldType + "> values) {");
-        out.println("        return (" + queryClassName + ") notIn(\"" + columnName + "\", values);");
+        out.println("    public " + queryClassName + " notIn" + capitalizedFieldName + "(Collection<" + boxedTypeName(fieldType) + "> values) {");
+        out.println("        return (" + queryClassName + ") " + conditionCall(drTable, field, "notIn", "OPERATOR_NOT_IN", "values", "values") + ";");
         out.println("    }");
         out.println();
 
@@ -228,7 +264,7 @@ public class QueryClassProcessor extends AbstractProcessor {
             out.println("     * " + fieldName + " 模糊匹配");
             out.println("     */");
             out.println("    public " + queryClassName + " like" + capitalizedFieldName + "(String value) {");
-            out.println("        return (" + queryClassName + ") like(\"" + columnName + "\", value);");
+            out.println("        return (" + queryClassName + ") " + conditionCall(drTable, field, "like", "OPERATOR_LIKE", "value", "\"%\" + value + \"%\"") + ";");
             out.println("    }");
             out.println();
 
@@ -237,7 +273,7 @@ public class QueryClassProcessor extends AbstractProcessor {
             out.println("     * " + fieldName + " 左模糊匹配");
             out.println("     */");
             out.println("    public " + queryClassName + " likeLeft" + capitalizedFieldName + "(String value) {");
-            out.println("        return (" + queryClassName + ") likeLeft(\"" + columnName + "\", value);");
+            out.println("        return (" + queryClassName + ") " + conditionCall(drTable, field, "likeLeft", "OPERATOR_LIKE", "value", "\"%\" + value") + ";");
             out.println("    }");
             out.println();
 
@@ -246,7 +282,7 @@ public class QueryClassProcessor extends AbstractProcessor {
             out.println("     * " + fieldName + " 右模糊匹配");
             out.println("     */");
             out.println("    public " + queryClassName + " likeRight" + capitalizedFieldName + "(String value) {");
-            out.println("        return (" + queryClassName + ") likeRight(\"" + columnName + "\", value);");
+            out.println("        return (" + queryClassName + ") " + conditionCall(drTable, field, "likeRight", "OPERATOR_LIKE", "value", "value + \"%\"") + ";");
             out.println("    }");
             out.println();
         }
@@ -256,7 +292,7 @@ public class QueryClassProcessor extends AbstractProcessor {
         out.println("     * " + fieldName + " 为空");
         out.println("     */");
         out.println("    public " + queryClassName + " isNull" + capitalizedFieldName + "() {");
-        out.println("        return (" + queryClassName + ") isNull(\"" + columnName + "\");");
+        out.println("        return (" + queryClassName + ") " + conditionCall(drTable, field, "isNull", "OPERATOR_IS_NULL", null, "null") + ";");
         out.println("    }");
         out.println();
 
@@ -265,10 +301,15 @@ public class QueryClassProcessor extends AbstractProcessor {
         out.println("     * " + fieldName + " 不为空");
         out.println("     */");
         out.println("    public " + queryClassName + " isNotNull" + capitalizedFieldName + "() {");
-        out.println("        return (" + queryClassName + ") isNotNull(\"" + columnName + "\");");
+        out.println("        return (" + queryClassName + ") " + conditionCall(drTable, field, "isNotNull", "OPERATOR_IS_NOT_NULL", null, "null") + ";");
         out.println("    }");
         out.println();
 
+        if (!field.isQueryField()) {
+            // feature中的字段不支持排序
+            return;
+        }
+
         // desc
         out.println("    /**");
         out.println("     * " + fieldName + " 降序排序");
@@ -288,6 +329,331 @@ public class QueryClassProcessor extends AbstractProcessor {
         out.println();
     }
 
+    /**
+     * 生成游标分页方法，替换已有的排序为按字段和id排序，并从上一页最后一行之后开始
+     *
+     * @param out            输出流
+     * @param queryClassName 查询类名
+     * @param field          排序字段
+     * @param idField        id字段
+     */
+    private void generateSeekMethods(PrintWriter out, String queryClassName, FieldInfo field, FieldInfo idField) {
+        String capitalizedFieldName = capitalize(field.getFieldName());
+        String idType = boxedTypeName(getSimpleTypeName(idField.getFieldType()));
+        boolean isId = field == idField;
+        for (String orderMode : new String[]{"asc", "desc"}) {
+            out.println("    /**");
+            out.println("     * 游标分页，按" + field.getFieldName() + (isId ? "" : "、" + idField.getFieldName()) + (orderMode.equals("asc") ? "升序" : "降序")
+                    + "，替换已有的排序，从上一页最后一行之后开始，last" + capitalize(idField.getFieldName()) + "为null时从第一页开始"
+                    + (isId ? "" : "，排序值不能为null"));
+            out.println("     */");
+            String params = isId ? idType + " last" + capitalizedFieldName
+                    : boxedTypeName(getSimpleTypeName(field.getFieldType())) + " last" + capitalizedFieldName + ", " + idType + " last" + capitalize(idField.getFieldName());
+            out.println("    public " + queryClassName + " seek" + capitalize(orderMode) + capitalizedFieldName + "(" + params + ") {");
+            // 重复调用时替换之前的排序，否则排序字段和游标值的个数不一致
+            out.println("        getOrders().clear();");
+            if (!isId) {
+                out.println("        " + orderMode + "(\"" + field.getColumnName() + "\");");
+            }
+            out.println("        " + orderMode + "(\"" + idField.getColumnName() + "\");");
+            out.println("        if (last" + capitalize(idField.getFieldName()) + " != null) {");
+            if (!isId) {
+                // 与NULL比较的行值条件不会匹配正确的行
+                out.println("            if (last" + capitalizedFieldName + " == null) {");
+                out.println("                throw new IllegalArgumentException(\"last" + capitalizedFieldName + " must not be null when seeking after last"
+                        + capitalize(idField.getFieldName()) + "\");");
+                out.println("            }");
+            }
+            out.println("            seekAfter(" + (isId ? "" : "last" + capitalizedFieldName + ", ") + "last" + capitalize(idField.getFieldName()) + ");");
+            out.println("        }");
+            out.println("        return this;");
+            out.println("    }");
+            out.println();
+        }
+    }
+
+    /**
+     * 生成条件方法中添加条件的调用，普通字段直接使用列名，feature中的字段通过JSON函数取值
+     *
+     * @param method       普通字段使用的QueryCondition方法
+     * @param operator     feature字段使用的操作符常量
+     * @param value        普通字段的值表达式，为null时没有值
+     * @param featureValue feature字段的值表达式
+     * @return 调用表达式
+     */
+    private String conditionCall(DrTable drTable, FieldInfo field, String method, String operator, String value, String featureValue) {
+        if (field.isQueryField()) {
+            return method + "(\"" + field.getColumnName() + "\"" + (value == null ? "" : ", " + value) + ")";
+        }
+        return "addFeatureCondition(\"" + drTable.featureColumnName() + "\", \"" + featureKey(field) + "\", " + operator + ", " + featureValue + ")";
+    }
+
+    /**
+     * @return JSON字段在feature中的key，没有配置列名时使用字段名
+     */
+    private String featureKey(FieldInfo field) {
+        return field.getColumnName().isBlank() ? field.getFieldName() : field.getColumnName();
+    }
+
+    /**
+     * 生成实体仓库，继承starter中的TypedDrRepository并注册为Spring Bean，表信息和Mapper在创建时确定
+     *
+     * @param classElement   实体类
+     * @param packageName    包名
+     * @param className      类名
+     * @param queryClassName 查询类名
+     * @throws IOException IO异常
+     */
+    private void generateRepositoryClass(TypeElement classElement, String packageName, String className, String queryClassName) throws IOException {
+        if (processingEnv.getElementUtils().getTypeElement(MybatisDrContent.TYPED_REPOSITORY_CLASS_NAME) == null
+                || !classElement.getTypeParameters().isEmpty()) {
+            return;
+        }
+        String repositoryClassName = className + MybatisDrContent.REPOSITORY_CLASS_SUFFIX;
+        String entityType = packageName + "." + className;
+        JavaFileObject repositoryFile = processingEnv.getFiler().createSourceFile(packageName + "." + repositoryClassName, classElement);
+
+        try (PrintWriter out = new PrintWriter(repositoryFile.openWriter())) {
+            out.println("package " + packageName + ";");
+            out.println();
+            out.println("import com.github.howwrite.mapper.DynamicSqlMapper;");
+            out.println("import com.github.howwrite.mybatis.dr.starter.MyBatisDrProperties;");
+            out.println("import " + MybatisDrContent.TYPED_REPOSITORY_CLASS_NAME + ";");
+            out.println("import org.apache.ibatis.session.SqlSessionFactory;");
+            out.println("import org.springframework.stereotype.Component;");
+            out.println();
+            out.println("/**");
+            out.println(" * " + className + "的仓库，由mybatis-dr自动生成");
+            out.println(" */");
+            out.println("@Component");
+            out.println("public class " + repositoryClassName + " extends TypedDrRepository<" + entityType + "> {");
+            out.println();
+            out.println("    public " + repositoryClassName + "(DynamicSqlMapper mapper, SqlSessionFactory sqlSessionFactory, MyBatisDrProperties properties) {");
+            out.println("        super(" + entityType + ".class, mapper, sqlSessionFactory, properties);");
+            out.println("    }");
+            out.println();
+            out.println("    /**");
+            out.println("     * @return 新的查询条件");
+            out.println("     */");
+            out.println("    public " + queryClassName + " query() {");
+            out.println("        return new " + queryClassName + "();");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    /**
+     * 生成实体编解码器，通过getter/setter直接读写字段
+     *
+     * @param classElement 实体类
+     * @param packageName  包名
+     * @param className    类名
+     * @throws IOException IO异常
+     */
+    private void generateCodecClass(TypeElement classElement, String packageName, String className) throws IOException {
+        String unsupportedReason = checkCodecSupported(classElement);
+        List<CodecField> codecFields = new ArrayList<>();
+        if (unsupportedReason == null) {
+            for (Element field : classElement.getEnclosedElements()) {
+                if (field.getKind() != ElementKind.FIELD
+                        || field.getModifiers().contains(Modifier.STATIC)
+                        || field.getAnnotation(DrColumnIgnore.class) != null) {
+                    continue;
+                }
+                CodecField codecField = buildCodecField(classElement, (VariableElement) field);
+                if (codecField == null) {
+                    unsupportedReason = "field " + field.getSimpleName() + " has no accessible getter/setter";
+                    break;
+                }
+                codecFields.add(codecField);
+            }
+        }
+        if (unsupportedReason != null) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "Skip generating codec for " + className + ": " + unsupportedReason, classElement);
+            return;
+        }
+
+        String codecClassName = className + MybatisDrContent.CODEC_CLASS_SUFFIX;
+        String entityType = packageName + "." + className;
+        JavaFileObject codecFile = processingEnv.getFiler().createSourceFile(packageName + "." + codecClassName, classElement);
+
+        try (PrintWriter out = new PrintWriter(codecFile.openWriter())) {
+            out.println("package " + packageName + ";");
+            out.println();
+            out.println("import com.github.howwrite.codec.EntityCodec;");
+            out.println();
+            out.println("/**");
+            out.println(" * " + className + "的编解码器，由mybatis-dr自动生成");
+            out.println(" */");
+            out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            out.println("public class " + codecClassName + " implements EntityCodec<" + entityType + "> {");
+            out.println();
+
+            StringBuilder fieldNames = new StringBuilder();
+            for (CodecField codecField : codecFields) {
+                if (!fieldNames.isEmpty()) {
+                    fieldNames.append(", ");
+                }
+                fieldNames.append('"').append(codecField.fieldName()).append('"');
+            }
+            out.println("    private static final String[] FIELD_NAMES = {" + fieldNames + "};");
+            out.println();
+
+            out.println("    @Override");
+            out.println("    public " + entityType + " newInstance() {");
+            out.println("        return new " + entityType + "();");
+            out.println("    }");
+            out.println();
+
+            out.println("    @Override");
+            out.println("    public String[] fieldNames() {");
+            out.println("        return FIELD_NAMES.clone();");
+            out.println("    }");
+            out.println();
+
+            out.println("    @Override");
+            out.println("    public Object get(" + entityType + " entity, int index) {");
+            out.println("        return switch (index) {");
+            for (int i = 0; i < codecFields.size(); i++) {
+                out.println("            case " + i + " -> entity." + codecFields.get(i).getter() + ";");
+            }
+            out.println("            default -> throw new IndexOutOfBoundsException(index);");
+            out.println("        };");
+            out.println("    }");
+            out.println();
+
+            out.println("    @Override");
+            out.println("    public void set(" + entityType + " entity, int index, Object value) {");
+            out.println("        switch (index) {");
+            for (int i = 0; i < codecFields.size(); i++) {
+                out.println("            case " + i + " -> entity." + codecFields.get(i).assign("(" + codecFields.get(i).castType() + ") value") + ";");
+            }
+            out.println("            default -> throw new IndexOutOfBoundsException(index);");
+            out.println("        }");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    /**
+     * 检查实体是否能生成编解码器：顶层、非抽象、可访问的无参构造
+     *
+     * @param classElement 实体类
+     * @return 不支持的原因，支持时返回null
+     */
+    private String checkCodecSupported(TypeElement classElement) {
+        if (classElement.getEnclosingElement().getKind() != ElementKind.PACKAGE) {
+            return "not a top level class";
+        }
+        if (classElement.getModifiers().contains(Modifier.ABSTRACT) || classElement.getModifiers().contains(Modifier.PRIVATE)) {
+            return "abstract or private class";
+        }
+        if (!classElement.getTypeParameters().isEmpty()) {
+            return "generic class";
+        }
+        boolean hasConstructor = false;
+        for (Element enclosed : classElement.getEnclosedElements()) {
+            if (enclosed.getKind() != ElementKind.CONSTRUCTOR) {
+                continue;
+            }
+            hasConstructor = true;
+            if (((ExecutableElement) enclosed).getParameters().isEmpty() && !enclosed.getModifiers().contains(Modifier.PRIVATE)) {
+                return null;
+            }
+        }
+        if (hasLombokAnnotation(classElement, "NoArgsConstructor")) {
+            return null;
+        }
+        // 没有显式构造函数时，lombok的全参构造/Builder会让默认构造函数消失
+        if (hasConstructor || hasLombokAnnotation(classElement, "AllArgsConstructor")
+                || hasLombokAnnotation(classElement, "Builder") || hasLombokAnnotation(classElement, "Value")) {
+            return "no accessible no-args constructor";
+        }
+        return null;
+    }
+
+    /**
+     * 解析字段的读写方式：优先getter/setter(包括lombok生成的)，其次非private字段直接访问
+     *
+     * @param classElement 实体类
+     * @param field        字段
+     * @return 字段读写信息，无法访问时返回null
+     */
+    private CodecField buildCodecField(TypeElement classElement, VariableElement field) {
+        String fieldName = field.getSimpleName().toString();
+        TypeMirror fieldType = field.asType();
+        boolean primitiveBoolean = fieldType.getKind() == TypeKind.BOOLEAN;
+        String getterName;
+        String setterName;
+        if (primitiveBoolean && fieldName.length() > 2 && fieldName.startsWith("is") && Character.isUpperCase(fieldName.charAt(2))) {
+            getterName = fieldName;
+            setterName = "set" + fieldName.substring(2);
+        } else {
+            getterName = (primitiveBoolean ? "is" : "get") + capitalize(fieldName);
+            setterName = "set" + capitalize(fieldName);
+        }
+
+        // lombok的@Accessors会改变方法名，此时只认显式声明的方法
+        boolean lombokAccessorsChanged = hasLombokAnnotation(classElement, "experimental.Accessors")
+                || hasLombokAnnotation(field, "experimental.Accessors");
+        boolean lombokData = !lombokAccessorsChanged && hasLombokAnnotation(classElement, "Data");
+        boolean lombokGetter = lombokData || !lombokAccessorsChanged
+                && (hasLombokAnnotation(classElement, "Getter") || hasLombokAnnotation(field, "Getter"));
+        boolean lombokSetter = !field.getModifiers().contains(Modifier.FINAL) && (lombokData || !lombokAccessorsChanged
+                && (hasLombokAnnotation(classElement, "Setter") || hasLombokAnnotation(field, "Setter")));
+        boolean fieldAccessible = !field.getModifiers().contains(Modifier.PRIVATE);
+
+        String getter;
+        if (lombokGetter || hasAccessibleMethod(classElement, getterName, 0)) {
+            getter = getterName + "()";
+        } else if (fieldAccessible) {
+            getter = fieldName;
+        } else {
+            return null;
+        }
+
+        boolean setterMethod;
+        if (lombokSetter || hasAccessibleMethod(classElement, setterName, 1)) {
+            setterMethod = true;
+        } else if (fieldAccessible && !field.getModifiers().contains(Modifier.FINAL)) {
+            setterMethod = false;
+        } else {
+            return null;
+        }
+
+        String castType;
+        if (fieldType.getKind().isPrimitive()) {
+            castType = processingEnv.getTypeUtils().boxedClass((PrimitiveType) fieldType).getQualifiedName().toString();
+        } else {
+            castType = processingEnv.getTypeUtils().erasure(fieldType).toString();
+        }
+        return new CodecField(fieldName, getter, setterMethod ? setterName : null, castType);
+    }
+
+    private boolean hasAccessibleMethod(TypeElement classElement, String methodName, int parameterCount) {
+        for (Element enclosed : classElement.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.METHOD
+                    && enclosed.getSimpleName().contentEquals(methodName)
+                    && !enclosed.getModifiers().contains(Modifier.PRIVATE)
+                    && !enclosed.getModifiers().contains(Modifier.STATIC)
+                    && ((ExecutableElement) enclosed).getParameters().size() == parameterCount) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasLombokAnnotation(Element element, String simpleName) {
+        String annotationName = "lombok." + simpleName;
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            if (annotationMirror.getAnnotationType().toString().equals(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * 获取简单类型名
      *
@@ -326,6 +692,26 @@ public class QueryClassProcessor extends AbstractProcessor {
         return typeName;
     }
 
+    /**
+     * 基本类型转换为包装类型名，其他类型原样返回
+     *
+     * @param typeName 类型名
+     * @return 包装类型名
+     */
+    private String boxedTypeName(String typeName) {
+        return switch (typeName) {
+            case "byte" -> "Byte";
+            case "short" -> "Short";
+            case "char" -> "Character";
+            case "int" -> "Integer";
+            case "long" -> "Long";
+            case "boolean" -> "Boolean";
+            case "float" -> "Float";
+            case "double" -> "Double";
+            default -> typeName;
+        };
+    }
+
     /**
      * 判断是否为数值类型
      *
@@ -432,4 +818,19 @@ public class QueryClassProcessor extends AbstractProcessor {
             return "QueryCondition";
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * 编解码器字段信息
+     *
+     * @param fieldName 字段名
+     * @param getter    读取表达式
+     * @param setter    setter方法名，为null时直接给字段赋值
+     * @param castType  赋值时的强转类型
+     */
+    private record CodecField(String fieldName, String getter, String setter, String castType) {
+
+        String assign(String valueExpression) {
+            return setter == null ? fieldName + " = " + valueExpression : setter + "(" + valueExpression + ")";
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.howwrite.query;
+
+import java.util.List;
+
+/**
+ * 分页查询的结果
+ *
+ * @author mybatis-dr
+ */
+public class Page<T> {
+
+    /**
+     * 当前页的记录
+     */
+    private final List<T> records;
+
+    /**
+     * 下一页的游标，即当前页最后一行的排序列的值，传给{@link QueryCondition#seekAfter(Object...)}查询下一页，没有下一页时为null
+     */
+    private final Object[] nextCursor;
+
+    /**
+     * 满足条件的总记录数，游标分页时为-1
+     */
+    private final long total;
+
+    private final boolean hasNext;
+
+    /**
+     * 游标分页的结果
+     *
+     * @param records    当前页的记录
+     * @param nextCursor 下一页的游标，没有下一页时为null
+     */
+    public Page(List<T> records, Object[] nextCursor) {
+        this(records, nextCursor, -1, nextCursor != null);
+    }
+
+    /**
+     * 按页码分页的结果
+     *
+     * @param records 当前页的记录
+     * @param total   总记录数
+     * @param hasNext 是否还有下一页
+     */
+    public Page(List<T> records, long total, boolean hasNext) {
+        this(records, null, total, hasNext);
+    }
+
+    private Page(List<T> records, Object[] nextCursor, long total, boolean hasNext) {
+        this.records = records;
+        this.nextCursor = nextCursor;
+        this.total = total;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getRecords() {
+        return records;
+    }
+
+    public Object[] getNextCursor() {
+        return nextCursor;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return 是否还有下一页
+     */
+    public boolean hasNext() {
+        return hasNext;
+    }
+}
@@ -88,6 +88,11 @@ public abstract class QueryCondition<T> {
 
     private Integer offset;
 
+    /**
+     * 游标分页中上一页最后一行的排序列的值，与排序字段一一对应，为null时从第一页开始
+     */
+    private Object[] seekValues;
+
     /**
      * @return 当前实体类型
      */
@@ -99,6 +104,18 @@ public abstract class QueryCondition<T> {
         return this;
     }
 
+    /**
+     * 游标分页，只返回排序在上一页最后一行之后的记录，SQL中渲染为(sort_col, id) > (?, ?)，
+     * 代价与页码无关。值按排序字段的顺序传入，排序字段需要以唯一列结尾且不能为NULL
+     *
+     * @param lastSortValues 上一页最后一行的排序列的值，为空时从第一页开始
+     * @return 当前对象
+     */
+    public QueryCondition<T> seekAfter(Object... lastSortValues) {
+        this.seekValues = lastSortValues == null || lastSortValues.length == 0 ? null : lastSortValues;
+        return this;
+    }
+
     /**
      * 添加条件
      *
@@ -112,6 +129,20 @@ public abstract class QueryCondition<T> {
         return this;
     }
 
+    /**
+     * 添加feature列中key的条件，SQL中通过JSON函数取值
+     *
+     * @param featureColumn feature列名
+     * @param featureKey    feature中的key
+     * @param operator      操作符
+     * @param value         值
+     * @return 当前对象
+     */
+    public QueryCondition<T> addFeatureCondition(String featureColumn, String featureKey, String operator, Object value) {
+        conditions.add(new Condition(featureColumn, featureKey, operator, value));
+        return this;
+    }
+
     /**
      * 添加等于条件
      *
@@ -300,6 +331,18 @@ public abstract class QueryCondition<T> {
         return conditions;
     }
 
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    public SelectKey[] getSelectKeys() {
+        return selectKeys;
+    }
+
+    public Object[] getSeekValues() {
+        return seekValues;
+    }
+
     /**
      * 内部排序类
      */
@@ -336,6 +379,11 @@ public abstract class QueryCondition<T> {
          */
         private String field;
 
+        /**
+         * feature列中的key，为null时条件作用在字段名对应的列上
+         */
+        private String featureKey;
+
         /**
          * 操作符
          */
@@ -359,6 +407,19 @@ public abstract class QueryCondition<T> {
             this.value = value;
         }
 
+        /**
+         * 构造函数
+         *
+         * @param field      feature列名
+         * @param featureKey feature中的key
+         * @param operator   操作符
+         * @param value      值
+         */
+        public Condition(String field, String featureKey, String operator, Object value) {
+            this(field, operator, value);
+            this.featureKey = featureKey;
+        }
+
         public String getField() {
             return field;
         }
@@ -367,6 +428,14 @@ public abstract class QueryCondition<T> {
             this.field = field;
         }
 
+        public String getFeatureKey() {
+            return featureKey;
+        }
+
+        public void setFeatureKey(String featureKey) {
+            this.featureKey = featureKey;
+        }
+
         public String getOperator() {
             return operator;
         }
@@ -387,12 +456,26 @@ public abstract class QueryCondition<T> {
     public static class SelectKey {
         private final String columnName;
 
+        /**
+         * feature列中的key，为null时表示整列
+         */
+        private final String featureKey;
+
         public SelectKey(String columnName) {
+            this(columnName, null);
+        }
+
+        public SelectKey(String columnName, String featureKey) {
             this.columnName = columnName;
+            this.featureKey = featureKey;
         }
 
         public String getColumnName() {
             return columnName;
         }
+
+        public String getFeatureKey() {
+            return featureKey;
+        }
     }
 }
\ No newline at end of file
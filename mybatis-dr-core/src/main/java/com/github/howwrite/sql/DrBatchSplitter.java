@@ -0,0 +1,93 @@
+package com.github.howwrite.sql;
+
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多值INSERT的分批，按行数、估算的字节数和占位符个数切分，同一批中的行列集合相同
+ *
+ * @author mybatis-dr
+ */
+public class DrBatchSplitter {
+
+    /**
+     * 驱动允许的占位符个数上限，MySQL预编译语句的参数个数用两个字节表示
+     */
+    public static final int MAX_PLACEHOLDERS = 65535;
+
+    /**
+     * 每个值在SQL中的额外开销，包括分隔符和引号
+     */
+    private static final int VALUE_OVERHEAD_BYTES = 4;
+
+    private DrBatchSplitter() {
+    }
+
+    /**
+     * 切分批量写入的行
+     *
+     * @param rows     parseEntity得到的行
+     * @param maxRows  每批最多的行数，小于等于0时不限制
+     * @param maxBytes 每批最多的估算字节数，小于等于0时不限制
+     * @return 各批的行，是rows的视图
+     */
+    public static List<List<Map<String, Object>>> split(List<Map<String, Object>> rows, int maxRows, long maxBytes) {
+        List<List<Map<String, Object>>> chunks = new ArrayList<>();
+        int start = 0;
+        long chunkBytes = 0;
+        int chunkPlaceholders = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> row = rows.get(i);
+            long rowBytes = estimateBytes(row);
+            int rowCount = i - start;
+            if (rowCount > 0 && ((maxRows > 0 && rowCount >= maxRows)
+                    || (maxBytes > 0 && chunkBytes + rowBytes > maxBytes)
+                    || chunkPlaceholders + row.size() > MAX_PLACEHOLDERS
+                    || !row.keySet().equals(rows.get(start).keySet()))) {
+                chunks.add(rows.subList(start, i));
+                start = i;
+                chunkBytes = 0;
+                chunkPlaceholders = 0;
+            }
+            chunkBytes += rowBytes;
+            chunkPlaceholders += row.size();
+        }
+        if (start < rows.size()) {
+            chunks.add(rows.subList(start, rows.size()));
+        }
+        return chunks;
+    }
+
+    /**
+     * 估算一行在SQL中的字节数，字符串按长度计算，不区分多字节字符
+     */
+    static long estimateBytes(Map<String, Object> row) {
+        long bytes = 2;
+        for (Object value : row.values()) {
+            bytes += VALUE_OVERHEAD_BYTES + estimateBytes(value);
+        }
+        return bytes;
+    }
+
+    private static long estimateBytes(Object value) {
+        if (value == null) {
+            return 4;
+        }
+        if (value instanceof CharSequence chars) {
+            return chars.length();
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return 20;
+        }
+        if (value instanceof Temporal || value instanceof Date) {
+            return 26;
+        }
+        return 32;
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.howwrite.sql;
+
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * DynamicSqlMapper的语言驱动，注解中的脚本是{@link DrStatementType}的名称。
+ * 只负责创建SqlSource，不修改Configuration，查询结果映射依赖的{@link com.github.howwrite.plugin.EntityResultSetInterceptor}需要单独注册
+ *
+ * @author mybatis-dr
+ */
+public class DrLanguageDriver implements LanguageDriver {
+
+    @Override
+    public ParameterHandler createParameterHandler(MappedStatement mappedStatement, Object parameterObject, BoundSql boundSql) {
+        return new DefaultParameterHandler(mappedStatement, parameterObject, boundSql);
+    }
+
+    @Override
+    public SqlSource createSqlSource(Configuration configuration, XNode script, Class<?> parameterType) {
+        return createSqlSource(configuration, script.getStringBody().trim(), parameterType);
+    }
+
+    @Override
+    public SqlSource createSqlSource(Configuration configuration, String script, Class<?> parameterType) {
+        return new DrSqlSource(configuration, DrStatementType.valueOf(script.trim()));
+    }
+}
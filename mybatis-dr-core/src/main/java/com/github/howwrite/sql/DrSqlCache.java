@@ -0,0 +1,112 @@
+package com.github.howwrite.sql;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 渲染后SQL的缓存，key为{@link DrSqlRenderer#fingerprint}计算的形状指纹。
+ * 命中时只收集绑定值，不再拼接SQL；缓存满了之后不再接纳新的形状，避免异常的查询形状无限增长
+ *
+ * @author mybatis-dr
+ */
+public class DrSqlCache {
+
+    /**
+     * 默认最多缓存的SQL形状数量
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final Map<String, String> SQL_CACHE = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<StringBuilder> KEY_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+    private static final LongAdder HIT_COUNT = new LongAdder();
+
+    private static final LongAdder MISS_COUNT = new LongAdder();
+
+    private static volatile int maxSize = DEFAULT_MAX_SIZE;
+
+    private DrSqlCache() {
+    }
+
+    /**
+     * 获取SQL，优先使用缓存
+     *
+     * @param type       语句类型
+     * @param params     参数Map
+     * @param entities   批量语句的实体列表，其他语句为null
+     * @param bindValues 占位符的值
+     * @return SQL
+     */
+    public static String getSql(DrStatementType type, Map<String, Object> params, List<Map<String, Object>> entities, List<Object> bindValues) {
+        if (maxSize <= 0) {
+            return DrSqlRenderer.render(type, params, entities, bindValues);
+        }
+        StringBuilder key = KEY_BUFFER.get();
+        key.setLength(0);
+        if (!DrSqlRenderer.fingerprint(type, params, key)) {
+            return DrSqlRenderer.render(type, params, entities, bindValues);
+        }
+        String fingerprint = key.toString();
+        String sql = SQL_CACHE.get(fingerprint);
+        if (sql != null) {
+            HIT_COUNT.increment();
+            DrSqlRenderer.bind(type, params, entities, bindValues);
+            return sql;
+        }
+        MISS_COUNT.increment();
+        sql = DrSqlRenderer.render(type, params, entities, bindValues);
+        if (SQL_CACHE.size() < maxSize) {
+            SQL_CACHE.putIfAbsent(fingerprint, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * @return 命中次数
+     */
+    public static long getHitCount() {
+        return HIT_COUNT.sum();
+    }
+
+    /**
+     * @return 未命中次数，包含缓存已满时没有被接纳的形状
+     */
+    public static long getMissCount() {
+        return MISS_COUNT.sum();
+    }
+
+    /**
+     * @return 当前缓存的SQL形状数量
+     */
+    public static int size() {
+        return SQL_CACHE.size();
+    }
+
+    public static int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 设置最多缓存的SQL形状数量，小于等于0时关闭缓存
+     *
+     * @param maxSize 最大数量
+     */
+    public static void setMaxSize(int maxSize) {
+        DrSqlCache.maxSize = maxSize;
+        if (SQL_CACHE.size() > Math.max(maxSize, 0)) {
+            SQL_CACHE.clear();
+        }
+    }
+
+    /**
+     * 清空缓存和计数
+     */
+    public static void clear() {
+        SQL_CACHE.clear();
+        HIT_COUNT.reset();
+        MISS_COUNT.reset();
+    }
+}
@@ -0,0 +1,629 @@
+package com.github.howwrite.sql;
+
+import com.github.howwrite.constant.FeatureEncoding;
+import com.github.howwrite.constant.MybatisDrContent;
+import com.github.howwrite.query.QueryCondition;
+import com.github.howwrite.util.TableInfo;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 直接根据参数拼接SQL，替代mapper xml中基于OGNL的动态SQL，占位符的值按顺序写入bindValues
+ *
+ * @author mybatis-dr
+ */
+public class DrSqlRenderer {
+
+    /**
+     * 复用的SQL缓冲区，超过上限后丢弃，避免大批量插入后长期占用内存
+     */
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private static final int MAX_BUFFER_CAPACITY = 64 * 1024;
+
+    /**
+     * 指纹各部分之间的分隔符，不会出现在列名中
+     */
+    private static final char SEPARATOR = '\u0001';
+
+    private DrSqlRenderer() {
+    }
+
+    /**
+     * 渲染SQL
+     *
+     * @param type       语句类型
+     * @param params     参数Map，与{@link com.github.howwrite.mapper.DynamicSqlMapper}中的params一致
+     * @param entities   批量语句的实体列表，其他语句为null
+     * @param bindValues 占位符的值
+     * @return SQL
+     */
+    public static String render(DrStatementType type, Map<String, Object> params, List<Map<String, Object>> entities, List<Object> bindValues) {
+        StringBuilder sql = BUFFER.get();
+        sql.setLength(0);
+        String tableName = (String) params.get("tableName");
+        QueryCondition<?> condition = (QueryCondition<?>) params.get("condition");
+        switch (type) {
+            case INSERT, INSERT_OR_UPDATE -> {
+                appendInsert(sql, tableName, List.of(entityOf(params)), bindValues);
+                if (type == DrStatementType.INSERT_OR_UPDATE) {
+                    appendDuplicateUpdate(sql, params);
+                }
+            }
+            case BATCH_INSERT, BATCH_INSERT_OR_UPDATE -> {
+                appendInsert(sql, tableName, entities, bindValues);
+                if (type == DrStatementType.BATCH_INSERT_OR_UPDATE) {
+                    appendDuplicateUpdate(sql, params);
+                }
+            }
+            case UPDATE, PATCH_UPDATE -> {
+                sql.append("UPDATE `").append(tableName).append("` SET ");
+                Object primaryKey = params.get("primaryKey");
+                boolean first = true;
+                for (Map.Entry<String, Object> entry : entityOf(params).entrySet()) {
+                    if (entry.getKey().equals(primaryKey)) {
+                        continue;
+                    }
+                    if (!first) {
+                        sql.append(", ");
+                    }
+                    first = false;
+                    appendColumn(sql, entry.getKey()).append(" = ?");
+                    bindValues.add(entry.getValue());
+                }
+                if (type == DrStatementType.PATCH_UPDATE) {
+                    appendFeaturePatch(sql, params, first, bindValues);
+                }
+                appendQueryCondition(sql, params, condition, bindValues);
+                appendOrderBy(sql, condition);
+                appendLimitAndOffset(sql, condition, bindValues);
+            }
+            case DELETE -> {
+                sql.append("DELETE FROM `").append(tableName).append('`');
+                appendQueryCondition(sql, params, condition, bindValues);
+                appendOrderBy(sql, condition);
+                appendLimitAndOffset(sql, condition, bindValues);
+            }
+            case LOGIC_DELETE -> {
+                sql.append("UPDATE `").append(tableName).append("` SET `deleted` = id, `deleted_time` = now()");
+                appendQueryCondition(sql, params, condition, bindValues);
+                appendOrderBy(sql, condition);
+                appendLimitAndOffset(sql, condition, bindValues);
+            }
+            case SELECT, SELECT_PAGE -> {
+                sql.append("SELECT ");
+                appendProjection(sql, params, condition);
+                if (type == DrStatementType.SELECT_PAGE) {
+                    sql.append(", COUNT(*) OVER() AS `").append(MybatisDrContent.TOTAL_COLUMN_ALIAS).append('`');
+                }
+                sql.append(" FROM `").append(tableName).append('`');
+                appendQueryCondition(sql, params, condition, bindValues);
+                appendOrderBy(sql, condition);
+                appendLimitAndOffset(sql, condition, bindValues);
+            }
+            case COUNT -> {
+                // 与select的列无关，统计行数，可以使用任意索引
+                sql.append("SELECT COUNT(*) FROM `").append(tableName).append('`');
+                appendQueryCondition(sql, params, condition, bindValues);
+            }
+            case EXISTS -> {
+                sql.append("SELECT 1 FROM `").append(tableName).append('`');
+                appendQueryCondition(sql, params, condition, bindValues);
+                sql.append(" LIMIT 1");
+            }
+            case EXPLAIN_COUNT -> {
+                sql.append("EXPLAIN SELECT * FROM `").append(tableName).append('`');
+                appendQueryCondition(sql, params, condition, bindValues);
+            }
+        }
+        String result = sql.toString();
+        if (sql.capacity() > MAX_BUFFER_CAPACITY) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    /**
+     * 只收集占位符的值，顺序与{@link #render}一致，用于SQL命中缓存时跳过渲染
+     *
+     * @param type       语句类型
+     * @param params     参数Map
+     * @param entities   批量语句的实体列表，其他语句为null
+     * @param bindValues 占位符的值
+     */
+    public static void bind(DrStatementType type, Map<String, Object> params, List<Map<String, Object>> entities, List<Object> bindValues) {
+        QueryCondition<?> condition = (QueryCondition<?>) params.get("condition");
+        switch (type) {
+            case INSERT, INSERT_OR_UPDATE -> bindValues.addAll(entityOf(params).values());
+            case BATCH_INSERT, BATCH_INSERT_OR_UPDATE -> {
+                Set<String> columns = entities.getFirst().keySet();
+                for (Map<String, Object> entity : entities) {
+                    for (String column : columns) {
+                        bindValues.add(entity.get(column));
+                    }
+                }
+            }
+            case UPDATE, PATCH_UPDATE -> {
+                Object primaryKey = params.get("primaryKey");
+                for (Map.Entry<String, Object> entry : entityOf(params).entrySet()) {
+                    if (!entry.getKey().equals(primaryKey)) {
+                        bindValues.add(entry.getValue());
+                    }
+                }
+                if (type == DrStatementType.PATCH_UPDATE) {
+                    bindValues.addAll(featurePatchOf(params).values());
+                }
+                bindConditions(condition, bindValues);
+                bindLimitAndOffset(condition, bindValues);
+            }
+            case DELETE, LOGIC_DELETE, SELECT, SELECT_PAGE -> {
+                bindConditions(condition, bindValues);
+                bindLimitAndOffset(condition, bindValues);
+            }
+            case COUNT, EXISTS, EXPLAIN_COUNT -> bindConditions(condition, bindValues);
+        }
+    }
+
+    /**
+     * 计算SQL的形状指纹，指纹相同的参数渲染出的SQL相同，只有绑定值不同。批量语句的形状随行数变化，不参与缓存
+     *
+     * @param type   语句类型
+     * @param params 参数Map
+     * @param key    写入指纹的缓冲区
+     * @return 是否可以缓存
+     */
+    public static boolean fingerprint(DrStatementType type, Map<String, Object> params, StringBuilder key) {
+        if (type == DrStatementType.BATCH_INSERT || type == DrStatementType.BATCH_INSERT_OR_UPDATE) {
+            return false;
+        }
+        key.append(type.ordinal()).append(SEPARATOR).append(params.get("tableName")).append(SEPARATOR);
+        switch (type) {
+            case INSERT, INSERT_OR_UPDATE -> {
+                entityOf(params).keySet().forEach(column -> key.append(column).append(','));
+                if (type == DrStatementType.INSERT_OR_UPDATE && params.get("whenDuplicateUpdateFields") instanceof Collection<?> fields) {
+                    key.append(SEPARATOR);
+                    fields.forEach(field -> key.append(field).append(','));
+                }
+                return true;
+            }
+            case UPDATE, PATCH_UPDATE -> {
+                key.append(params.get("primaryKey")).append(SEPARATOR);
+                entityOf(params).keySet().forEach(column -> key.append(column).append(','));
+                if (type == DrStatementType.PATCH_UPDATE) {
+                    key.append(SEPARATOR).append(params.get("featureColumnName")).append(SEPARATOR);
+                    featurePatchOf(params).keySet().forEach(featureKey -> key.append(featureKey).append(','));
+                }
+            }
+            default -> {
+            }
+        }
+        key.append(SEPARATOR).append(Boolean.TRUE.equals(params.get("logicDelete")) ? 'D' : '-');
+        QueryCondition<?> condition = (QueryCondition<?>) params.get("condition");
+        if (condition == null) {
+            return true;
+        }
+        key.append(SEPARATOR);
+        if (condition.getSelectKeys() != null) {
+            key.append(projectFeatureKeys(params) ? 'P' : '-');
+            for (QueryCondition.SelectKey selectKey : condition.getSelectKeys()) {
+                key.append(selectKey.getColumnName());
+                if (selectKey.getFeatureKey() != null) {
+                    key.append('.').append(selectKey.getFeatureKey());
+                }
+                key.append(',');
+            }
+        }
+        key.append(SEPARATOR);
+        for (QueryCondition.Condition item : condition.getConditions()) {
+            key.append(item.getField());
+            if (item.getFeatureKey() != null) {
+                key.append('.').append(item.getFeatureKey());
+            }
+            key.append(' ').append(item.getOperator());
+            if (QueryCondition.OPERATOR_IN.equals(item.getOperator()) || QueryCondition.OPERATOR_NOT_IN.equals(item.getOperator())) {
+                // IN列表的长度决定占位符个数
+                Object value = item.getValue();
+                key.append(' ').append(value instanceof Collection<?> values ? values.size() : value instanceof Object[] values ? values.length : -1);
+            }
+            key.append(',');
+        }
+        if (seekValuesOf(condition) != null) {
+            key.append('K');
+        }
+        key.append(SEPARATOR);
+        for (QueryCondition.Order order : condition.getOrders()) {
+            key.append(order.getField()).append(' ').append(order.getOrderMode()).append(',');
+        }
+        key.append(SEPARATOR).append(condition.getLimit() != null ? 'L' : '-').append(condition.getOffset() != null ? 'O' : '-');
+        return true;
+    }
+
+    private static void bindConditions(QueryCondition<?> condition, List<Object> bindValues) {
+        if (condition == null) {
+            return;
+        }
+        for (QueryCondition.Condition item : condition.getConditions()) {
+            switch (item.getOperator()) {
+                case QueryCondition.OPERATOR_IN, QueryCondition.OPERATOR_NOT_IN -> {
+                    Object value = item.getValue();
+                    if (value instanceof Collection<?> values) {
+                        bindValues.addAll(values);
+                    } else if (value instanceof Object[] values) {
+                        bindValues.addAll(List.of(values));
+                    } else {
+                        bindValues.add(value);
+                    }
+                }
+                case QueryCondition.OPERATOR_IS_NULL, QueryCondition.OPERATOR_IS_NOT_NULL -> {
+                }
+                default -> bindValues.add(item.getValue());
+            }
+        }
+        bindSeek(condition, bindValues);
+    }
+
+    private static void bindSeek(QueryCondition<?> condition, List<Object> bindValues) {
+        Object[] seekValues = seekValuesOf(condition);
+        if (seekValues == null) {
+            return;
+        }
+        if (sameOrderMode(condition.getOrders())) {
+            bindValues.addAll(List.of(seekValues));
+            return;
+        }
+        for (int i = 0; i < seekValues.length; i++) {
+            for (int j = 0; j <= i; j++) {
+                bindValues.add(seekValues[j]);
+            }
+        }
+    }
+
+    private static void bindLimitAndOffset(QueryCondition<?> condition, List<Object> bindValues) {
+        if (condition == null) {
+            return;
+        }
+        if (condition.getLimit() != null) {
+            bindValues.add(condition.getLimit());
+        }
+        if (condition.getOffset() != null) {
+            bindValues.add(condition.getOffset());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> entityOf(Map<String, Object> params) {
+        return (Map<String, Object>) params.get("entity");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> featurePatchOf(Map<String, Object> params) {
+        return (Map<String, Object>) params.get("featurePatch");
+    }
+
+    /**
+     * feature = JSON_SET(COALESCE(feature, '{}'), '$."a"', CAST(? AS JSON), ...)，值为JSON文本，只改写传入的key
+     */
+    private static void appendFeaturePatch(StringBuilder sql, Map<String, Object> params, boolean first, List<Object> bindValues) {
+        Map<String, Object> featurePatch = featurePatchOf(params);
+        if (featurePatch.isEmpty()) {
+            return;
+        }
+        String featureColumn = (String) params.get("featureColumnName");
+        if (!first) {
+            sql.append(", ");
+        }
+        appendColumn(sql, featureColumn).append(" = JSON_SET(COALESCE(");
+        appendColumn(sql, featureColumn).append(", '{}')");
+        for (Map.Entry<String, Object> entry : featurePatch.entrySet()) {
+            sql.append(", ");
+            appendFeaturePath(sql, entry.getKey()).append(", CAST(? AS JSON)");
+            bindValues.add(entry.getValue());
+        }
+        sql.append(')');
+    }
+
+    /**
+     * 列名取自第一行，每一行按同样的列顺序取值，{@link DrBatchSplitter}保证同一批中的行列集合相同
+     */
+    private static void appendInsert(StringBuilder sql, String tableName, List<Map<String, Object>> entities, List<Object> bindValues) {
+        sql.append("INSERT INTO `").append(tableName).append("` (");
+        Set<String> columns = entities.getFirst().keySet();
+        boolean first = true;
+        for (String column : columns) {
+            if (!first) {
+                sql.append(", ");
+            }
+            first = false;
+            appendColumn(sql, column);
+        }
+        sql.append(") VALUES ");
+        for (int i = 0; i < entities.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append('(');
+            Map<String, Object> entity = entities.get(i);
+            boolean firstValue = true;
+            for (String column : columns) {
+                if (!firstValue) {
+                    sql.append(", ");
+                }
+                firstValue = false;
+                sql.append('?');
+                bindValues.add(entity.get(column));
+            }
+            sql.append(')');
+        }
+    }
+
+    private static void appendDuplicateUpdate(StringBuilder sql, Map<String, Object> params) {
+        Object fields = params.get("whenDuplicateUpdateFields");
+        if (!(fields instanceof Collection<?> updateFields) || updateFields.isEmpty()) {
+            return;
+        }
+        sql.append(" ON DUPLICATE KEY UPDATE ");
+        boolean first = true;
+        for (Object field : updateFields) {
+            if (!first) {
+                sql.append(", ");
+            }
+            first = false;
+            appendColumn(sql, field.toString()).append(" = values(");
+            appendColumn(sql, field.toString()).append(')');
+        }
+    }
+
+
+    /**
+     * 查询列，feature中的key单独选择时用JSON_EXTRACT只取出对应的值，别名为{@link MybatisDrContent#FEATURE_KEY_ALIAS_PREFIX}加key；
+     * 同时选择了整个feature列，或者feature列不是未压缩的JSON文本时仍然查询整列
+     */
+    private static void appendProjection(StringBuilder sql, Map<String, Object> params, QueryCondition<?> condition) {
+        if (condition == null || condition.getSelectKeys() == null || condition.getSelectKeys().length == 0 || !projectFeatureKeys(params)) {
+            sql.append(condition == null ? "*" : condition.calSelectKeys());
+            return;
+        }
+        QueryCondition.SelectKey[] selectKeys = condition.getSelectKeys();
+        Set<String> wholeColumns = new HashSet<>();
+        for (QueryCondition.SelectKey selectKey : selectKeys) {
+            if (selectKey.getFeatureKey() == null) {
+                wholeColumns.add(selectKey.getColumnName());
+            }
+        }
+        Set<String> selected = new HashSet<>();
+        boolean first = true;
+        for (QueryCondition.SelectKey selectKey : selectKeys) {
+            String featureKey = selectKey.getFeatureKey();
+            if (featureKey != null && wholeColumns.contains(selectKey.getColumnName())) {
+                continue;
+            }
+            if (!selected.add(featureKey == null ? selectKey.getColumnName() : selectKey.getColumnName() + '.' + featureKey)) {
+                continue;
+            }
+            if (!first) {
+                sql.append(',');
+            }
+            first = false;
+            if (featureKey == null) {
+                sql.append(selectKey.getColumnName());
+                continue;
+            }
+            sql.append("JSON_EXTRACT(");
+            appendColumn(sql, selectKey.getColumnName()).append(", ");
+            appendFeaturePath(sql, featureKey).append(") AS ");
+            appendColumn(sql, MybatisDrContent.FEATURE_KEY_ALIAS_PREFIX + featureKey);
+        }
+    }
+
+    /**
+     * 只有结果直接映射为实体、数据库支持JSON函数并且feature列是未压缩的JSON文本时，才能在数据库中取出单个key
+     */
+    private static boolean projectFeatureKeys(Map<String, Object> params) {
+        return Boolean.TRUE.equals(params.get(MybatisDrContent.JSON_FUNCTIONS_PARAM_NAME))
+                && params.get(MybatisDrContent.TABLE_INFO_PARAM_NAME) instanceof TableInfo<?> tableInfo
+                && tableInfo.getFeatureEncoding() == FeatureEncoding.JSON
+                && tableInfo.getFeatureCompressThreshold() <= 0;
+    }
+
+    private static void appendQueryCondition(StringBuilder sql, Map<String, Object> params, QueryCondition<?> condition, List<Object> bindValues) {
+        Object[] seekValues = seekValuesOf(condition);
+        boolean hasCondition = condition != null && (!condition.getConditions().isEmpty() || seekValues != null);
+        boolean logicDelete = Boolean.TRUE.equals(params.get("logicDelete"));
+        if (hasCondition || logicDelete) {
+            sql.append(" WHERE ");
+        }
+        if (hasCondition) {
+            boolean first = true;
+            for (QueryCondition.Condition item : condition.getConditions()) {
+                if (!first) {
+                    sql.append(" AND ");
+                }
+                first = false;
+                appendCondition(sql, item, bindValues);
+            }
+            if (seekValues != null) {
+                if (!first) {
+                    sql.append(" AND ");
+                }
+                appendSeek(sql, condition.getOrders(), seekValues, bindValues);
+            }
+        }
+        if (logicDelete) {
+            if (hasCondition) {
+                sql.append(" AND ");
+            }
+            sql.append("`deleted` = 0");
+        }
+    }
+
+    /**
+     * 排序，COUNT不需要排序
+     */
+    private static void appendOrderBy(StringBuilder sql, QueryCondition<?> condition) {
+        if (condition != null && !condition.getOrders().isEmpty()) {
+            sql.append(" ORDER BY ");
+            boolean first = true;
+            for (QueryCondition.Order order : condition.getOrders()) {
+                if (!first) {
+                    sql.append(", ");
+                }
+                first = false;
+                appendColumn(sql, order.getField()).append(' ').append(order.getOrderMode());
+            }
+        }
+    }
+
+    private static void appendCondition(StringBuilder sql, QueryCondition.Condition item, List<Object> bindValues) {
+        String operator = item.getOperator();
+        if (item.getFeatureKey() != null) {
+            appendFeatureValue(sql, item.getField(), item.getFeatureKey());
+        } else {
+            appendColumn(sql, item.getField());
+        }
+        sql.append(' ').append(operator);
+        switch (operator) {
+            case QueryCondition.OPERATOR_IN, QueryCondition.OPERATOR_NOT_IN -> {
+                sql.append(" (");
+                Object value = item.getValue();
+                if (value instanceof Collection<?> values) {
+                    appendPlaceholders(sql, values, bindValues);
+                } else if (value instanceof Object[] values) {
+                    appendPlaceholders(sql, List.of(values), bindValues);
+                } else {
+                    sql.append('?');
+                    bindValues.add(value);
+                }
+                sql.append(')');
+            }
+            case QueryCondition.OPERATOR_IS_NULL, QueryCondition.OPERATOR_IS_NOT_NULL -> {
+            }
+            default -> {
+                sql.append(" ?");
+                bindValues.add(item.getValue());
+            }
+        }
+    }
+
+    /**
+     * 游标分页的条件，排序方向一致时使用行值比较(a, b) > (?, ?)，方向混合时展开为(a > ?) OR (a = ? AND b < ?)
+     */
+    private static void appendSeek(StringBuilder sql, List<QueryCondition.Order> orders, Object[] seekValues, List<Object> bindValues) {
+        if (sameOrderMode(orders)) {
+            String operator = isDesc(orders.getFirst()) ? " < " : " > ";
+            if (orders.size() == 1) {
+                appendColumn(sql, orders.getFirst().getField()).append(operator).append('?');
+            } else {
+                sql.append('(');
+                for (int i = 0; i < orders.size(); i++) {
+                    if (i > 0) {
+                        sql.append(", ");
+                    }
+                    appendColumn(sql, orders.get(i).getField());
+                }
+                sql.append(')').append(operator).append('(');
+                for (int i = 0; i < orders.size(); i++) {
+                    sql.append(i > 0 ? ", ?" : "?");
+                }
+                sql.append(')');
+            }
+            bindValues.addAll(List.of(seekValues));
+            return;
+        }
+        sql.append('(');
+        for (int i = 0; i < orders.size(); i++) {
+            if (i > 0) {
+                sql.append(" OR ");
+            }
+            sql.append('(');
+            for (int j = 0; j < i; j++) {
+                appendColumn(sql, orders.get(j).getField()).append(" = ? AND ");
+                bindValues.add(seekValues[j]);
+            }
+            appendColumn(sql, orders.get(i).getField()).append(isDesc(orders.get(i)) ? " < ?" : " > ?");
+            bindValues.add(seekValues[i]);
+            sql.append(')');
+        }
+        sql.append(')');
+    }
+
+    /**
+     * @return 游标分页的值，没有游标时返回null
+     * @throws IllegalArgumentException 值的个数与排序字段的个数不一致
+     */
+    private static Object[] seekValuesOf(QueryCondition<?> condition) {
+        if (condition == null || condition.getSeekValues() == null) {
+            return null;
+        }
+        Object[] seekValues = condition.getSeekValues();
+        if (seekValues.length != condition.getOrders().size()) {
+            throw new IllegalArgumentException("Seek values must match order fields, expected "
+                    + condition.getOrders().size() + " but got " + seekValues.length);
+        }
+        return seekValues;
+    }
+
+    private static boolean sameOrderMode(List<QueryCondition.Order> orders) {
+        boolean desc = isDesc(orders.getFirst());
+        for (QueryCondition.Order order : orders) {
+            if (isDesc(order) != desc) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDesc(QueryCondition.Order order) {
+        return "desc".equalsIgnoreCase(order.getOrderMode());
+    }
+
+    private static void appendLimitAndOffset(StringBuilder sql, QueryCondition<?> condition, List<Object> bindValues) {
+        if (condition == null) {
+            return;
+        }
+        if (condition.getLimit() != null) {
+            sql.append(" limit ?");
+            bindValues.add(condition.getLimit());
+        }
+        if (condition.getOffset() != null) {
+            sql.append(" offset ?");
+            bindValues.add(condition.getOffset());
+        }
+    }
+
+    private static void appendPlaceholders(StringBuilder sql, Collection<?> values, List<Object> bindValues) {
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                sql.append(", ");
+            }
+            first = false;
+            sql.append('?');
+            bindValues.add(value);
+        }
+    }
+
+    /**
+     * feature列中key的值，JSON_UNQUOTE之后字符串不带引号，数值和字符串比较时MySQL按数值比较。
+     * 可以在同样的表达式上建立函数索引或生成列索引
+     */
+    private static void appendFeatureValue(StringBuilder sql, String featureColumn, String featureKey) {
+        sql.append("JSON_UNQUOTE(JSON_EXTRACT(");
+        appendColumn(sql, featureColumn).append(", ");
+        appendFeaturePath(sql, featureKey).append("))");
+    }
+
+    private static StringBuilder appendFeaturePath(StringBuilder sql, String featureKey) {
+        if (featureKey.indexOf('\'') >= 0 || featureKey.indexOf('"') >= 0 || featureKey.indexOf('\\') >= 0 || featureKey.indexOf('`') >= 0) {
+            throw new IllegalArgumentException("Illegal feature key: " + featureKey);
+        }
+        return sql.append("'$.\"").append(featureKey).append("\"'");
+    }
+
+    private static StringBuilder appendColumn(StringBuilder sql, String column) {
+        return sql.append('`').append(column).append('`');
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.howwrite.sql;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DynamicSqlMapper的SqlSource，SQL经{@link DrSqlCache}获取，占位符的值作为BoundSql的附加参数传入
+ *
+ * @author mybatis-dr
+ */
+public class DrSqlSource implements SqlSource {
+
+    /**
+     * 附加参数名前缀，不会和@Param的参数名冲突
+     */
+    static final String BIND_PARAMETER_PREFIX = "__dr_";
+
+    private final Configuration configuration;
+
+    private final DrStatementType statementType;
+
+    private volatile List<ParameterMapping> parameterMappings = Collections.emptyList();
+
+    public DrSqlSource(Configuration configuration, DrStatementType statementType) {
+        this.configuration = configuration;
+        this.statementType = statementType;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public BoundSql getBoundSql(Object parameterObject) {
+        Map<String, Object> paramMap = (Map<String, Object>) parameterObject;
+        Map<String, Object> params = (Map<String, Object>) paramMap.get("params");
+        List<Map<String, Object>> entities = paramMap.containsKey("entities") ? (List<Map<String, Object>>) paramMap.get("entities") : null;
+
+        List<Object> bindValues = new ArrayList<>();
+        String sql = DrSqlCache.getSql(statementType, params, entities, bindValues);
+
+        List<ParameterMapping> parameterMappings = parameterMappings(bindValues.size());
+        BoundSql boundSql = new BoundSql(configuration, sql, parameterMappings, parameterObject);
+        for (int i = 0; i < bindValues.size(); i++) {
+            boundSql.setAdditionalParameter(parameterMappings.get(i).getProperty(), bindValues.get(i));
+        }
+        return boundSql;
+    }
+
+    /**
+     * 参数映射只和占位符个数有关，按需扩容后复用。javaType统一为Object，由UnknownTypeHandler按值的实际类型选择TypeHandler，与xml中的#{value}一致
+     */
+    private List<ParameterMapping> parameterMappings(int count) {
+        List<ParameterMapping> mappings = parameterMappings;
+        if (mappings.size() < count) {
+            synchronized (this) {
+                mappings = parameterMappings;
+                if (mappings.size() < count) {
+                    List<ParameterMapping> grown = new ArrayList<>(count);
+                    grown.addAll(mappings);
+                    for (int i = mappings.size(); i < count; i++) {
+                        grown.add(new ParameterMapping.Builder(configuration, BIND_PARAMETER_PREFIX + i, Object.class).build());
+                    }
+                    mappings = Collections.unmodifiableList(grown);
+                    parameterMappings = mappings;
+                }
+            }
+        }
+        return mappings.size() == count ? mappings : mappings.subList(0, count);
+    }
+}
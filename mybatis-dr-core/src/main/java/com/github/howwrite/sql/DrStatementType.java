@@ -0,0 +1,61 @@
+package com.github.howwrite.sql;
+
+/**
+ * {@link com.github.howwrite.mapper.DynamicSqlMapper}中的语句类型，注解中的脚本即为类型名
+ *
+ * @author mybatis-dr
+ */
+public enum DrStatementType {
+    /**
+     * 插入记录
+     */
+    INSERT,
+    /**
+     * insert or update
+     */
+    INSERT_OR_UPDATE,
+    /**
+     * 批量插入记录
+     */
+    BATCH_INSERT,
+    /**
+     * 批量 insert or update
+     */
+    BATCH_INSERT_OR_UPDATE,
+    /**
+     * 更新记录
+     */
+    UPDATE,
+    /**
+     * 更新记录，feature列只通过JSON_SET写入非null的key
+     */
+    PATCH_UPDATE,
+    /**
+     * 根据条件删除记录
+     */
+    DELETE,
+    /**
+     * 逻辑删除
+     */
+    LOGIC_DELETE,
+    /**
+     * 根据条件查询记录
+     */
+    SELECT,
+    /**
+     * 根据条件查询一页记录，同时通过COUNT(*) OVER()返回总数
+     */
+    SELECT_PAGE,
+    /**
+     * 根据条件查询记录数
+     */
+    COUNT,
+    /**
+     * 是否存在满足条件的记录，SELECT 1 ... LIMIT 1
+     */
+    EXISTS,
+    /**
+     * 通过EXPLAIN获取优化器估算的记录数
+     */
+    EXPLAIN_COUNT
+}
@@ -0,0 +1,151 @@
+package com.github.howwrite.util;
+
+import com.github.howwrite.model.FieldAccessor;
+import com.github.howwrite.model.LambdaFieldAccessor;
+import com.github.howwrite.model.ReflectFieldAccessor;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 字段读写器、构造器工厂，用于没有生成编解码器的实体
+ * <p>
+ * 存在getter/setter时通过LambdaMetafactory生成对应的函数对象(隐藏类)，否则回退到反射
+ *
+ * @author mybatis-dr
+ */
+public class AccessorFactory {
+
+    private static final Log LOGGER = LogFactory.getLog(AccessorFactory.class);
+
+    private static final MethodType FUNCTION_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType BI_CONSUMER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType SUPPLIER_TYPE = MethodType.methodType(Object.class);
+
+    private AccessorFactory() {
+    }
+
+    /**
+     * 创建字段读写器
+     *
+     * @param field 字段，需要已经setAccessible
+     * @return 字段读写器
+     */
+    @SuppressWarnings("unchecked")
+    public static FieldAccessor createFieldAccessor(Field field) {
+        ReflectFieldAccessor reflectAccessor = new ReflectFieldAccessor(field);
+        Class<?> entityClass = field.getDeclaringClass();
+        Function<Object, Object> getter = null;
+        BiConsumer<Object, Object> setter = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(entityClass, MethodHandles.lookup());
+            Method getterMethod = findGetter(field);
+            if (getterMethod != null) {
+                MethodHandle handle = lookup.unreflect(getterMethod);
+                getter = (Function<Object, Object>) LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class), FUNCTION_TYPE, handle,
+                        MethodType.methodType(wrap(field.getType()), entityClass)).getTarget().invokeExact();
+            }
+            Method setterMethod = findSetter(field);
+            if (setterMethod != null) {
+                MethodHandle handle = lookup.unreflect(setterMethod);
+                setter = (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(lookup, "accept",
+                        MethodType.methodType(BiConsumer.class), BI_CONSUMER_TYPE, handle,
+                        MethodType.methodType(void.class, entityClass, wrap(field.getType()))).getTarget().invokeExact();
+            }
+        } catch (Throwable e) {
+            LOGGER.debug("Error creating lambda accessor for field: " + field.getName() + ", fallback to reflection");
+        }
+        if (getter == null && setter == null) {
+            return reflectAccessor;
+        }
+        return new LambdaFieldAccessor(getter == null ? reflectAccessor::get : getter,
+                setter == null ? reflectAccessor::set : setter);
+    }
+
+    /**
+     * 创建无参构造器
+     *
+     * @param entityClass 实体类
+     * @return 构造器，实体没有无参构造时调用会抛出异常
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Supplier<T> createConstructor(Class<T> entityClass) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(entityClass, MethodHandles.lookup());
+            MethodHandle handle = lookup.findConstructor(entityClass, MethodType.methodType(void.class));
+            return (Supplier<T>) LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class), SUPPLIER_TYPE, handle,
+                    MethodType.methodType(entityClass)).getTarget().invokeExact();
+        } catch (Throwable e) {
+            LOGGER.debug("Error creating lambda constructor for class: " + entityClass.getName() + ", fallback to reflection");
+        }
+        return () -> {
+            try {
+                Constructor<T> constructor = entityClass.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create entity instance: " + entityClass.getName(), e);
+            }
+        };
+    }
+
+    private static Method findGetter(Field field) {
+        String fieldName = field.getName();
+        Method method = null;
+        if (field.getType() == boolean.class) {
+            method = findMethod(field.getDeclaringClass(), isBooleanPrefixed(fieldName) ? fieldName : "is" + capitalize(fieldName));
+        }
+        if (method == null) {
+            method = findMethod(field.getDeclaringClass(), "get" + capitalize(fieldName));
+        }
+        return method != null && method.getReturnType() == field.getType() ? method : null;
+    }
+
+    private static Method findSetter(Field field) {
+        String fieldName = field.getName();
+        Method method = null;
+        if (field.getType() == boolean.class && isBooleanPrefixed(fieldName)) {
+            method = findMethod(field.getDeclaringClass(), "set" + fieldName.substring(2), field.getType());
+        }
+        if (method == null) {
+            method = findMethod(field.getDeclaringClass(), "set" + capitalize(fieldName), field.getType());
+        }
+        return method;
+    }
+
+    private static Method findMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = clazz.getDeclaredMethod(name, parameterTypes);
+            return Modifier.isStatic(method.getModifiers()) ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static boolean isBooleanPrefixed(String fieldName) {
+        return fieldName.length() > 2 && fieldName.startsWith("is") && Character.isUpperCase(fieldName.charAt(2));
+    }
+
+    private static String capitalize(String str) {
+        return str.substring(0, 1).toUpperCase() + str.substring(1);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+}
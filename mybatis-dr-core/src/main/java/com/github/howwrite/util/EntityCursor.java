@@ -0,0 +1,114 @@
+package com.github.howwrite.util;
+
+import org.apache.ibatis.cursor.Cursor;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 基于结果集的实体游标，迭代时逐行映射，不缓存已经读取的行
+ *
+ * @author mybatis-dr
+ */
+public class EntityCursor<T> implements Cursor<T> {
+
+    private final ResultSet resultSet;
+
+    private final EntityRowMapper<T> rowMapper;
+
+    private boolean open = true;
+
+    private boolean consumed;
+
+    private boolean iteratorRetrieved;
+
+    private int currentIndex = -1;
+
+    public EntityCursor(ResultSet resultSet, EntityRowMapper<T> rowMapper) {
+        this.resultSet = resultSet;
+        this.rowMapper = rowMapper;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public boolean isConsumed() {
+        return consumed;
+    }
+
+    @Override
+    public int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    /**
+     * 关闭结果集，执行器创建游标语句时设置了closeOnCompletion，语句会随之关闭
+     */
+    @Override
+    public void close() {
+        if (!open) {
+            return;
+        }
+        open = false;
+        try {
+            resultSet.close();
+        } catch (SQLException e) {
+            // 与DefaultCursor一致，关闭失败时忽略
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        if (iteratorRetrieved) {
+            throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+        }
+        if (!open) {
+            throw new IllegalStateException("A Cursor is already closed.");
+        }
+        iteratorRetrieved = true;
+        return new EntityIterator();
+    }
+
+    private class EntityIterator implements Iterator<T> {
+
+        private T next;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && open) {
+                next = fetchNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T entity = next;
+            next = null;
+            currentIndex++;
+            return entity;
+        }
+
+        private T fetchNext() {
+            try {
+                if (resultSet.next()) {
+                    return rowMapper.mapRow(resultSet);
+                }
+            } catch (SQLException e) {
+                close();
+                throw new RuntimeException("Failed to fetch entity from cursor", e);
+            }
+            consumed = true;
+            close();
+            return null;
+        }
+    }
+}
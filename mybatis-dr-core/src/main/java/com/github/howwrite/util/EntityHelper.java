@@ -1,13 +1,24 @@
 package com.github.howwrite.util;
 
 import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
 import com.github.howwrite.annotation.DrColumn;
 import com.github.howwrite.annotation.DrColumnIgnore;
 import com.github.howwrite.annotation.DrTable;
+import com.github.howwrite.codec.CodecFieldAccessor;
+import com.github.howwrite.codec.EntityCodec;
+import com.github.howwrite.constant.FeatureEncoding;
+import com.github.howwrite.constant.MybatisDrContent;
 import com.github.howwrite.converter.DefaultConverter;
 import com.github.howwrite.converter.DrConverter;
+import com.github.howwrite.converter.ValueConverter;
+import com.github.howwrite.converter.ValueConverters;
+import com.github.howwrite.model.FieldAccessor;
 import com.github.howwrite.model.FieldInfo;
 import com.github.howwrite.model.IgnoreCaseField;
+import com.github.howwrite.query.QueryCondition;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -15,7 +26,7 @@ import org.apache.ibatis.logging.LogFactory;
 import java.lang.reflect.*;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * 实体工具类，用于处理实体与表的映射关系
@@ -27,11 +38,29 @@ public class EntityHelper {
     private static final Log LOGGER = LogFactory.getLog(EntityHelper.class);
 
     /**
-     * 表信息缓存，key为实体类，value为表信息
+     * 表信息注册表，由ClassValue保证每个实体类只发布一份不可变的表信息，读取时无锁
      */
-    private static final Map<Class<?>, TableInfo<?>> TABLE_INFO_CACHE = new ConcurrentHashMap<>();
+    private static final ClassValue<TableInfo<?>> TABLE_INFOS = new ClassValue<>() {
+        @Override
+        protected TableInfo<?> computeValue(Class<?> type) {
+            return createTableInfo(type);
+        }
+    };
 
-    private static final Map<Class<? extends DrConverter>, DrConverter> CONVERTER_CACHE = new ConcurrentHashMap<>();
+    /**
+     * 转换器实例，每个转换器类只创建一次
+     */
+    private static final ClassValue<DrConverter> CONVERTERS = new ClassValue<>() {
+        @Override
+        protected DrConverter computeValue(Class<?> type) {
+            try {
+                return (DrConverter) type.getDeclaredConstructor().newInstance();
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
+                     NoSuchMethodException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    };
 
 
     /**
@@ -40,79 +69,80 @@ public class EntityHelper {
      * @param entityClass 实体类
      * @return 表信息
      */
+    @SuppressWarnings("unchecked")
     public static <T> TableInfo<T> getTableInfo(Class<T> entityClass) {
-        TableInfo<T> existValue = (TableInfo<T>) TABLE_INFO_CACHE.get(entityClass);
-        if (existValue != null) {
-            return existValue;
-        }
-        synchronized (entityClass.getName()) {
-            TableInfo<T> existValue1 = (TableInfo<T>) TABLE_INFO_CACHE.get(entityClass);
-            if (existValue1 != null) {
-                return existValue1;
-            }
-            TableInfo<T> tableInfo = new TableInfo<>();
-            tableInfo.setEntityClass(entityClass);
-
-            // 解析表名
-            DrTable drTable = entityClass.getAnnotation(DrTable.class);
-            tableInfo.setTableName(drTable.value());
-            tableInfo.setFeatureColumnName(drTable.featureColumnName());
-            tableInfo.setLogicDelete(drTable.logicDelete());
-            tableInfo.setCreatedTimeColumnName(drTable.createdTimeColumnName());
-            tableInfo.setUpdatedTimeColumnName(drTable.updatedTimeColumnName());
-            tableInfo.setIdColumnName(drTable.idColumnName());
-
-            // 解析字段
-            Map<String, FieldInfo> fieldMap = new HashMap<>();
-            Map<String, FieldInfo> jsonFields = new HashMap<>();
-            FieldInfo idField = null;
-            Set<String> whenDuplicateUpdateFields = new HashSet<>();
-
-            Field[] fields = entityClass.getDeclaredFields();
-            for (Field field : fields) {
-                // 跳过静态字段和被@FieldIgnore标记的字段
-                if (Modifier.isStatic(field.getModifiers())
-                        || field.isAnnotationPresent(DrColumnIgnore.class)) {
-                    continue;
-                }
+        return (TableInfo<T>) TABLE_INFOS.get(entityClass);
+    }
 
-                // 访问权限
-                field.setAccessible(true);
+    /**
+     * 解析实体类的表信息，并发首次访问时可能执行多次，只有一份会被发布
+     */
+    private static <T> TableInfo<T> createTableInfo(Class<T> entityClass) {
+        // 解析表名
+        DrTable drTable = entityClass.getAnnotation(DrTable.class);
+        if (drTable == null) {
+            throw new IllegalArgumentException("Entity class is not annotated with @DrTable: " + entityClass.getName());
+        }
 
-                DrColumn drColumnAnnotation = field.getAnnotation(DrColumn.class);
-                if (drColumnAnnotation != null && drColumnAnnotation.query()) {
-                    // 有@Field注解且是query的字段
-                    String columnName = drColumnAnnotation.value();
-                    fieldMap.put(columnName, new FieldInfo(field, drColumnAnnotation.converter()));
+        // 优先使用注解处理器生成的编解码器
+        EntityCodec<T> entityCodec = findEntityCodec(entityClass);
+        Map<String, Integer> codecIndexMap = new HashMap<>();
+        if (entityCodec != null) {
+            String[] codecFieldNames = entityCodec.fieldNames();
+            for (int i = 0; i < codecFieldNames.length; i++) {
+                codecIndexMap.put(codecFieldNames[i], i);
+            }
+        }
+        Supplier<T> instanceSupplier = entityCodec != null ? entityCodec::newInstance : AccessorFactory.createConstructor(entityClass);
+
+        // 解析字段
+        LinkedHashMap<String, FieldInfo> fieldMap = new LinkedHashMap<>();
+        LinkedHashMap<String, FieldInfo> jsonFields = new LinkedHashMap<>();
+        FieldInfo idField = null;
+        Set<String> whenDuplicateUpdateFields = new HashSet<>();
+
+        Field[] fields = entityClass.getDeclaredFields();
+        for (Field field : fields) {
+            // 跳过静态字段和被@FieldIgnore标记的字段
+            if (Modifier.isStatic(field.getModifiers())
+                    || field.isAnnotationPresent(DrColumnIgnore.class)) {
+                continue;
+            }
 
-                    if (drTable.idColumnName().equals(columnName)) {
-                        idField = new FieldInfo(field, drColumnAnnotation.converter());
-                        whenDuplicateUpdateFields.add(columnName);
-                    }
+            // 访问权限
+            field.setAccessible(true);
+            Integer codecIndex = codecIndexMap.get(field.getName());
+            FieldAccessor accessor = codecIndex == null ? AccessorFactory.createFieldAccessor(field) : new CodecFieldAccessor<>(entityCodec, codecIndex);
+
+            DrColumn drColumnAnnotation = field.getAnnotation(DrColumn.class);
+            if (drColumnAnnotation != null && drColumnAnnotation.query()) {
+                // 有@Field注解且是query的字段
+                String columnName = drColumnAnnotation.value();
+                FieldInfo fieldInfo = newFieldInfo(field, drColumnAnnotation.converter(), accessor);
+                fieldMap.put(columnName, fieldInfo);
+
+                if (drTable.idColumnName().equals(columnName)) {
+                    idField = fieldInfo;
+                    whenDuplicateUpdateFields.add(columnName);
+                }
 
-                    // 冲突需要更新的字段处理 createTime字段看Table配置，非createdTime看字段配置
-                    if ((drTable.createdTimeColumnName().equals(columnName) && drTable.whenDuplicateUpdateCreatedTime())
-                            || (!drTable.createdTimeColumnName().equals(columnName) && drColumnAnnotation.whenDuplicateUpdate())
-                    ) {
-                        whenDuplicateUpdateFields.add(columnName);
-                    }
-                } else {
-                    // 否则是json中的字段
-                    String columnName = Optional.ofNullable(drColumnAnnotation).map(DrColumn::value).orElse(null);
-                    if (StringUtils.isBlank(columnName)) {
-                        columnName = field.getName();
-                    }
-                    jsonFields.put(columnName, new FieldInfo(field, drColumnAnnotation == null ? DefaultConverter.class : drColumnAnnotation.converter()));
+                // 冲突需要更新的字段处理 createTime字段看Table配置，非createdTime看字段配置
+                if ((drTable.createdTimeColumnName().equals(columnName) && drTable.whenDuplicateUpdateCreatedTime())
+                        || (!drTable.createdTimeColumnName().equals(columnName) && drColumnAnnotation.whenDuplicateUpdate())
+                ) {
+                    whenDuplicateUpdateFields.add(columnName);
                 }
+            } else {
+                // 否则是json中的字段
+                String columnName = Optional.ofNullable(drColumnAnnotation).map(DrColumn::value).orElse(null);
+                if (StringUtils.isBlank(columnName)) {
+                    columnName = field.getName();
+                }
+                jsonFields.put(columnName, newFieldInfo(field, drColumnAnnotation == null ? DefaultConverter.class : drColumnAnnotation.converter(), accessor));
             }
-
-            tableInfo.setFieldMap(fieldMap);
-            tableInfo.setJsonFieldMap(jsonFields);
-            tableInfo.setWhenDuplicateUpdateFields(whenDuplicateUpdateFields);
-            tableInfo.setIdField(idField);
-            TABLE_INFO_CACHE.put(entityClass, tableInfo);
-            return tableInfo;
         }
+
+        return new TableInfo<>(entityClass, drTable, entityCodec, instanceSupplier, fieldMap, jsonFields, idField, whenDuplicateUpdateFields);
     }
 
     /**
@@ -128,8 +158,26 @@ public class EntityHelper {
             return new HashMap<>();
         }
 
+        Map<String, Object> result = parseColumns(entity, tableInfo, create);
+
+        // 处理json字段，按TableInfo中预先确定的顺序直接写入JSONWriter
+        Object feature = writeFeature(entity, tableInfo);
+        if (feature != null) {
+            result.put(tableInfo.getFeatureColumnName(), feature);
+        }
+        return result;
+    }
+
+    /**
+     * 解析实体对象中的普通字段和时间字段，不包含feature列
+     *
+     * @param entity    实体对象
+     * @param tableInfo 表信息
+     * @param create    是否是创建
+     * @return 字段值Map
+     */
+    public static Map<String, Object> parseColumns(Object entity, TableInfo<?> tableInfo, boolean create) {
         Map<String, Object> result = new HashMap<>();
-        Map<String, Object> featureMap = new HashMap<>();
 
         // 填充时间，支持自定义填充时间，如果没有自定义填充时间，那么会使用当前时间用于创建、更新时间
         result.put(tableInfo.getUpdatedTimeColumnName(), LocalDateTime.now());
@@ -138,12 +186,14 @@ public class EntityHelper {
         }
 
         // 处理普通字段
-        for (Map.Entry<String, FieldInfo> entry : tableInfo.getFieldMap().entrySet()) {
-            String columnName = entry.getKey();
-            Field field = entry.getValue().getField();
+        String[] columnNames = tableInfo.getColumnNames();
+        FieldInfo[] columnFields = tableInfo.getColumnFields();
+        for (int i = 0; i < columnNames.length; i++) {
+            String columnName = columnNames[i];
+            Field field = columnFields[i].getField();
 
             try {
-                Object obj = findConverter(entry.getValue().getDrConverterClass()).serialize(field.get(entity));
+                Object obj = findConverter(columnFields[i].getDrConverterClass()).serialize(columnFields[i].getValue(entity));
 
                 if (obj != null) {
                     result.put(columnName, obj);
@@ -153,26 +203,93 @@ public class EntityHelper {
             }
         }
 
-        // 处理json字段
-        for (Map.Entry<String, FieldInfo> entry : tableInfo.getJsonFieldMap().entrySet()) {
-            String columnName = entry.getKey();
-            Field field = entry.getValue().getField();
+        return result;
+    }
 
+    /**
+     * 非null的JSON字段，用于只改写feature中部分key的更新
+     *
+     * @param entity    实体
+     * @param tableInfo 表信息
+     * @return key为feature中的key，value为字段值的JSON文本，按TableInfo中的字段顺序
+     */
+    public static Map<String, Object> parseFeaturePatch(Object entity, TableInfo<?> tableInfo) {
+        String[] names = tableInfo.getJsonFieldNames();
+        FieldInfo[] fields = tableInfo.getJsonFields();
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < fields.length; i++) {
+            Object value;
             try {
-                Object value = findConverter(entry.getValue().getDrConverterClass()).serialize(field.get(entity));
-                if (value != null) {
-                    featureMap.put(columnName, value);
-                }
+                value = findConverter(fields[i].getDrConverterClass()).serialize(fields[i].getValue(entity));
             } catch (Exception e) {
-                LOGGER.error("Error getting json field value: " + field.getName(), e);
+                LOGGER.error("Error getting json field value: " + fields[i].getField().getName(), e);
+                continue;
+            }
+            if (value != null) {
+                result.put(names[i], JSON.toJSONString(value));
             }
         }
+        return result;
+    }
 
-        // 添加feature字段
-        if (!featureMap.isEmpty()) {
-            result.put(tableInfo.getFeatureColumnName(), JSON.toJSONString(featureMap));
+    /**
+     * 把JSON字段序列化为feature列的值，不经过中间Map
+     *
+     * @param entity    实体
+     * @param tableInfo 表信息
+     * @return feature列的值，JSON编码时为String，JSONB编码时为byte[]，超过压缩阈值时为压缩后的数据，没有非null的JSON字段时返回null
+     */
+    public static Object writeFeature(Object entity, TableInfo<?> tableInfo) {
+        String[] names = tableInfo.getJsonFieldNames();
+        FieldInfo[] fields = tableInfo.getJsonFields();
+        if (fields.length == 0) {
+            return null;
+        }
+        boolean jsonb = tableInfo.getFeatureEncoding() == FeatureEncoding.JSONB;
+        try (JSONWriter writer = jsonb ? JSONWriter.ofJSONB() : JSONWriter.of()) {
+            boolean empty = true;
+            for (int i = 0; i < fields.length; i++) {
+                Object value;
+                try {
+                    value = findConverter(fields[i].getDrConverterClass()).serialize(fields[i].getValue(entity));
+                } catch (Exception e) {
+                    LOGGER.error("Error getting json field value: " + fields[i].getField().getName(), e);
+                    continue;
+                }
+                if (value == null) {
+                    continue;
+                }
+                if (empty) {
+                    writer.startObject();
+                    empty = false;
+                }
+                writer.writeName(names[i]);
+                if (!jsonb) {
+                    writer.writeColon();
+                }
+                writer.writeAny(value);
+            }
+            if (empty) {
+                return null;
+            }
+            writer.endObject();
+            // 压缩后带头部，文本列还要Base64编码，只有实际变小时才使用压缩结果
+            int threshold = tableInfo.getFeatureCompressThreshold();
+            if (jsonb) {
+                byte[] bytes = writer.getBytes();
+                if (threshold > 0 && bytes.length > threshold) {
+                    byte[] compressed = FeatureCompressor.compress(bytes);
+                    return compressed.length < bytes.length ? compressed : bytes;
+                }
+                return bytes;
+            }
+            String json = writer.toString();
+            if (threshold > 0 && json.length() > threshold) {
+                String compressed = FeatureCompressor.compressText(json);
+                return compressed.length() < json.length() ? compressed : json;
+            }
+            return json;
         }
-        return result;
     }
 
     /**
@@ -200,31 +317,27 @@ public class EntityHelper {
         map.forEach((key, value) -> fieldMap.put(new IgnoreCaseField(key), value));
 
         try {
-            T entity = tableInfo.getEntityClass().getDeclaredConstructor().newInstance();
+            T entity = newInstance(tableInfo);
 
             // 处理带注解的字段
-            for (Map.Entry<String, FieldInfo> entry : tableInfo.getFieldMap().entrySet()) {
-                String columnName = entry.getKey();
-                FieldInfo fieldInfo = entry.getValue();
-                Object value = fieldMap.get(new IgnoreCaseField(columnName));
+            String[] columnNames = tableInfo.getColumnNames();
+            FieldInfo[] columnFields = tableInfo.getColumnFields();
+            for (int i = 0; i < columnNames.length; i++) {
+                Object value = fieldMap.get(new IgnoreCaseField(columnNames[i]));
 
                 if (value != null) {
-                    assignField(fieldInfo, entity, value);
+                    assignField(columnFields[i], entity, value);
                 }
             }
 
             // 处理JSON字段
-            String featureJson = (String) fieldMap.get(new IgnoreCaseField(tableInfo.getFeatureColumnName()));
-            if (StringUtils.isNotBlank(featureJson)) {
-                Map<String, Object> jsonFields = JSON.parseObject(featureJson);
-                for (Map.Entry<String, FieldInfo> entry : tableInfo.getJsonFieldMap().entrySet()) {
-                    String columnName = entry.getKey();
-                    FieldInfo fieldInfo = entry.getValue();
-                    Object value = jsonFields.get(columnName);
-
-                    if (value != null) {
-                        assignField(fieldInfo, entity, value);
-                    }
+            assignFeatureFields(fieldMap.get(new IgnoreCaseField(tableInfo.getFeatureColumnName())), entity, tableInfo);
+
+            // 处理通过JSON_EXTRACT单独查询的feature key
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                FieldInfo fieldInfo = findFeatureKeyField(tableInfo, entry.getKey());
+                if (fieldInfo != null && entry.getValue() != null) {
+                    assignFeatureKeyValue(fieldInfo, entity, entry.getValue().toString());
                 }
             }
 
@@ -234,27 +347,227 @@ public class EntityHelper {
         }
     }
 
-    public static void assignField(FieldInfo fieldInfo, Object target, Object value) throws IllegalAccessException {
-        Field field = fieldInfo.getField();
-        Type fieldType = field.getGenericType();
+    /**
+     * 解析feature列并写入JSON字段
+     *
+     * @param feature   feature列的值，JSON文本或JSONB字节
+     * @param entity    实体
+     * @param tableInfo 表信息
+     */
+    public static void assignFeatureFields(Object feature, Object entity, TableInfo<?> tableInfo) {
+        assignFeatureFields(feature, entity, tableInfo, null);
+    }
 
-        if (isTypeCompatible(field, value)) {
-            field.set(target, value);
+    /**
+     * 用JSONReader流式解析feature列，只读取映射了的key，其余的值直接跳过不会被构造出来
+     *
+     * @param feature     feature列的值，JSON文本或JSONB字节
+     * @param entity      实体
+     * @param tableInfo   表信息
+     * @param featureKeys 需要读取的key，为null时读取所有映射了的key
+     */
+    public static void assignFeatureFields(Object feature, Object entity, TableInfo<?> tableInfo, Set<String> featureKeys) {
+        Map<String, FieldInfo> jsonFieldMap = tableInfo.getJsonFieldMap();
+        try (JSONReader reader = openFeatureReader(feature)) {
+            if (reader == null || !reader.nextIfObjectStart()) {
+                return;
+            }
+            while (!reader.nextIfObjectEnd()) {
+                String key = reader.readFieldName();
+                FieldInfo fieldInfo = jsonFieldMap.get(key);
+                if (fieldInfo == null || (featureKeys != null && !featureKeys.contains(key))) {
+                    reader.skipValue();
+                    continue;
+                }
+                Object value = reader.readAny();
+                if (value != null) {
+                    assignField(fieldInfo, entity, value);
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Failed to assign json field", e);
+        }
+    }
+
+    /**
+     * 按feature列的实际内容选择解析方式，压缩过的数据先解压；字节以JSONB对象标记开头时按JSONB解析，否则按UTF-8的JSON文本解析，
+     * 兼容从longtext切换到JSONB、开启压缩之前写入的数据
+     *
+     * @return 为空时返回null
+     */
+    private static JSONReader openFeatureReader(Object feature) {
+        if (feature instanceof byte[] bytes) {
+            if (bytes.length == 0) {
+                return null;
+            }
+            if (FeatureCompressor.isCompressed(bytes)) {
+                bytes = FeatureCompressor.decompress(bytes);
+            }
+            return bytes[0] == JSONB.Constants.BC_OBJECT ? JSONReader.ofJSONB(bytes) : JSONReader.of(bytes);
+        }
+        if (feature == null || StringUtils.isBlank(feature.toString())) {
+            return null;
+        }
+        String text = feature.toString();
+        return FeatureCompressor.isCompressed(text) ? JSONReader.of(FeatureCompressor.decompressText(text)) : JSONReader.of(text);
+    }
+
+    /**
+     * 查找JSON_EXTRACT结果列对应的JSON字段
+     *
+     * @param tableInfo   表信息
+     * @param columnLabel 结果列名
+     * @return JSON字段，不是feature key的结果列时返回null
+     */
+    public static FieldInfo findFeatureKeyField(TableInfo<?> tableInfo, String columnLabel) {
+        String prefix = MybatisDrContent.FEATURE_KEY_ALIAS_PREFIX;
+        if (columnLabel.length() <= prefix.length() || !columnLabel.regionMatches(true, 0, prefix, 0, prefix.length())) {
+            return null;
+        }
+        String featureKey = columnLabel.substring(prefix.length());
+        FieldInfo fieldInfo = tableInfo.getJsonFieldMap().get(featureKey);
+        if (fieldInfo != null) {
+            return fieldInfo;
+        }
+        for (Map.Entry<String, FieldInfo> entry : tableInfo.getJsonFieldMap().entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(featureKey)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 写入JSON_EXTRACT取出的值
+     *
+     * @param fieldInfo JSON字段
+     * @param entity    实体
+     * @param json      JSON_EXTRACT的结果，是JSON文本
+     */
+    public static void assignFeatureKeyValue(FieldInfo fieldInfo, Object entity, String json) throws IllegalAccessException {
+        if (json == null) {
+            return;
+        }
+        Object value = JSON.parse(json);
+        if (value != null) {
+            assignField(fieldInfo, entity, value);
+        }
+    }
+
+    /**
+     * 查询条件中选择的feature key
+     *
+     * @param condition 查询条件
+     * @param tableInfo 表信息
+     * @return 需要读取的key，为null时表示读取所有映射了的key
+     */
+    public static Set<String> selectedFeatureKeys(QueryCondition<?> condition, TableInfo<?> tableInfo) {
+        if (condition == null || condition.getSelectKeys() == null || condition.getSelectKeys().length == 0) {
+            return null;
+        }
+        Set<String> featureKeys = new HashSet<>();
+        for (QueryCondition.SelectKey selectKey : condition.getSelectKeys()) {
+            if (!selectKey.getColumnName().equalsIgnoreCase(tableInfo.getFeatureColumnName())) {
+                continue;
+            }
+            if (selectKey.getFeatureKey() == null) {
+                // 选择了整个feature列
+                return null;
+            }
+            featureKeys.add(selectKey.getFeatureKey());
+        }
+        return featureKeys;
+    }
+
+    public static void assignField(FieldInfo fieldInfo, Object target, Object value) throws IllegalAccessException {
+        if (value == null || isTypeCompatible(fieldInfo, value)) {
+            fieldInfo.setValue(target, value);
             return;
         }
 
-        Object convertedValue = findConverter(fieldInfo.getDrConverterClass()).deserialize(fieldType, value);
+        ValueConverter valueConverter = fieldInfo.getValueConverter();
+        if (valueConverter == null) {
+            // 不是通过getTableInfo创建的字段信息
+            valueConverter = resolveValueConverter(fieldInfo);
+        }
+        Object convertedValue = valueConverter.convert(value);
         if (convertedValue != null) {
-            field.set(target, convertedValue);
+            fieldInfo.setValue(target, convertedValue);
         }
     }
 
+    /**
+     * 带缓存的类型兼容判断，每个字段按值类型各判断一次
+     */
+    private static boolean isTypeCompatible(FieldInfo fieldInfo, Object value) {
+        ClassValue<Boolean> valueCompatibility = fieldInfo.getValueCompatibility();
+        if (valueCompatibility == null) {
+            return isTypeCompatible(fieldInfo.getField(), value.getClass());
+        }
+        return valueCompatibility.get(value.getClass());
+    }
+
+    private static ValueConverter resolveValueConverter(FieldInfo fieldInfo) {
+        return ValueConverters.of(fieldInfo.getField().getGenericType(), findConverter(fieldInfo.getDrConverterClass()));
+    }
+
+    /**
+     * 创建字段信息，同时确定字段的反序列化方式
+     */
+    private static FieldInfo newFieldInfo(Field field, Class<? extends DrConverter> converterClass, FieldAccessor accessor) {
+        ClassValue<Boolean> valueCompatibility = new ClassValue<>() {
+            @Override
+            protected Boolean computeValue(Class<?> valueClass) {
+                return isTypeCompatible(field, valueClass);
+            }
+        };
+        return new FieldInfo(field, converterClass, accessor,
+                ValueConverters.of(field.getGenericType(), findConverter(converterClass)), valueCompatibility);
+    }
+
+    /**
+     * 读取实体中普通字段的数据库值，经过字段的转换器序列化
+     *
+     * @param entity     实体
+     * @param tableInfo  表信息
+     * @param columnName 列名
+     * @return 数据库值
+     * @throws IllegalArgumentException 列不是实体的普通字段
+     */
+    public static Object columnValue(Object entity, TableInfo<?> tableInfo, String columnName) {
+        FieldInfo fieldInfo = tableInfo.getFieldMap().get(columnName);
+        if (fieldInfo == null) {
+            throw new IllegalArgumentException("Unknown column: " + columnName + " of " + tableInfo.getTableName());
+        }
+        return findConverter(fieldInfo.getDrConverterClass()).serialize(fieldInfo.getValue(entity));
+    }
+
+    /**
+     * 创建实体实例，优先使用生成的编解码器
+     *
+     * @param tableInfo 表信息
+     * @return 实体
+     */
+    public static <T> T newInstance(TableInfo<T> tableInfo) {
+        return tableInfo.getInstanceSupplier().get();
+    }
+
     // 检查 Field 对象的类型和对象的类型是否兼容
     public static boolean isTypeCompatible(Field field, Object obj) {
         if (obj == null) {
             return true; // 空对象被认为与任何类型兼容
         }
+        return isTypeCompatible(field, obj.getClass());
+    }
 
+    /**
+     * 检查字段类型和值类型是否兼容，结果只与类型有关
+     *
+     * @param field      字段
+     * @param valueClass 值类型
+     * @return 是否兼容
+     */
+    public static boolean isTypeCompatible(Field field, Class<?> valueClass) {
         // 获取 Field 的类型
         Type fieldType = field.getGenericType();
         Class<?> fieldRawType;
@@ -265,7 +578,7 @@ public class EntityHelper {
         }
 
         // 检查对象的类型是否是 Field 原始类型的子类
-        if (!fieldRawType.isAssignableFrom(obj.getClass())) {
+        if (!fieldRawType.isAssignableFrom(valueClass)) {
             return false;
         }
 
@@ -274,7 +587,7 @@ public class EntityHelper {
             Type[] fieldTypeArguments = parameterizedFieldType.getActualTypeArguments();
 
             // 如果对象也是泛型类型
-            if (obj.getClass().getGenericSuperclass() instanceof ParameterizedType parameterizedObjType) {
+            if (valueClass.getGenericSuperclass() instanceof ParameterizedType parameterizedObjType) {
                 Type[] objTypeArguments = parameterizedObjType.getActualTypeArguments();
 
                 // 检查泛型类型参数是否兼容
@@ -292,24 +605,33 @@ public class EntityHelper {
         return true;
     }
 
-    private static DrConverter findConverter(Class<? extends DrConverter> clazz) {
-        DrConverter drConverter = CONVERTER_CACHE.get(clazz);
-        if (drConverter != null) {
-            return drConverter;
-        }
-        synchronized (clazz.getName()) {
-            DrConverter converter = CONVERTER_CACHE.get(clazz);
-            if (converter != null) {
-                return converter;
-            }
-            try {
-                DrConverter newInstance = clazz.getDeclaredConstructor().newInstance();
-                CONVERTER_CACHE.put(clazz, newInstance);
-                return newInstance;
-            } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
-                     NoSuchMethodException e) {
-                throw new RuntimeException(e);
+    /**
+     * 查找注解处理器生成的编解码器，类名为实体类名 + Codec
+     *
+     * @param entityClass 实体类
+     * @return 编解码器，不存在或者不匹配时返回null
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> EntityCodec<T> findEntityCodec(Class<T> entityClass) {
+        Class<?> codecClass;
+        try {
+            codecClass = Class.forName(entityClass.getName() + MybatisDrContent.CODEC_CLASS_SUFFIX, true, entityClass.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            if (!EntityCodec.class.isAssignableFrom(codecClass)
+                    || codecClass.getMethod("newInstance").getReturnType() != entityClass) {
+                return null;
             }
+            return (EntityCodec<T>) codecClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            LOGGER.warn("Error creating entity codec: " + codecClass.getName() + ", fallback to reflection");
+            return null;
         }
     }
+
+    private static DrConverter findConverter(Class<? extends DrConverter> clazz) {
+        return CONVERTERS.get(clazz);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package com.github.howwrite.util;
+
+import com.github.howwrite.constant.FeatureEncoding;
+import com.github.howwrite.converter.DefaultConverter;
+import com.github.howwrite.model.FieldInfo;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.ibatis.executor.resultset.ResultSetWrapper;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 结果集到实体的直接映射，列下标和TypeHandler在每个结果集上只解析一次，逐行直接写入实体，不再经过中间Map
+ *
+ * @author mybatis-dr
+ */
+public class EntityRowMapper<T> {
+
+    private final TableInfo<T> tableInfo;
+
+    /**
+     * 普通字段对应的列下标，从1开始
+     */
+    private final int[] columnIndexes;
+
+    private final FieldInfo[] columnFields;
+
+    private final TypeHandler<?>[] columnTypeHandlers;
+
+    /**
+     * feature列下标，不存在时为-1
+     */
+    private final int featureColumnIndex;
+
+    /**
+     * 通过JSON_EXTRACT单独查询的feature key对应的列下标，从1开始
+     */
+    private final int[] featureKeyIndexes;
+
+    private final FieldInfo[] featureKeyFields;
+
+    /**
+     * 需要从feature列读取的key，为null时读取所有映射了的key
+     */
+    private final Set<String> featureKeys;
+
+    public EntityRowMapper(ResultSet resultSet, TableInfo<T> tableInfo, Configuration configuration, Set<String> featureKeys) throws SQLException {
+        this.tableInfo = tableInfo;
+        this.featureKeys = featureKeys;
+        ResultSetWrapper resultSetWrapper = new ResultSetWrapper(resultSet, configuration);
+        List<String> columnNames = resultSetWrapper.getColumnNames();
+
+        List<Integer> indexes = new ArrayList<>();
+        List<FieldInfo> fields = new ArrayList<>();
+        List<TypeHandler<?>> typeHandlers = new ArrayList<>();
+        List<Integer> keyIndexes = new ArrayList<>();
+        List<FieldInfo> keyFields = new ArrayList<>();
+        int featureIndex = -1;
+        for (int i = 0; i < columnNames.size(); i++) {
+            String columnName = columnNames.get(i);
+            if (featureIndex < 0 && columnName.equalsIgnoreCase(tableInfo.getFeatureColumnName())) {
+                featureIndex = i + 1;
+                continue;
+            }
+            FieldInfo featureKeyField = EntityHelper.findFeatureKeyField(tableInfo, columnName);
+            if (featureKeyField != null) {
+                keyIndexes.add(i + 1);
+                keyFields.add(featureKeyField);
+                continue;
+            }
+            FieldInfo fieldInfo = findField(tableInfo.getFieldMap(), columnName);
+            if (fieldInfo == null) {
+                continue;
+            }
+            indexes.add(i + 1);
+            fields.add(fieldInfo);
+            typeHandlers.add(resultSetWrapper.getTypeHandler(resolveJavaType(fieldInfo), columnName));
+        }
+
+        this.columnIndexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+        this.columnFields = fields.toArray(new FieldInfo[0]);
+        this.columnTypeHandlers = typeHandlers.toArray(new TypeHandler<?>[0]);
+        this.featureColumnIndex = featureIndex;
+        this.featureKeyIndexes = keyIndexes.stream().mapToInt(Integer::intValue).toArray();
+        this.featureKeyFields = keyFields.toArray(new FieldInfo[0]);
+    }
+
+    /**
+     * 映射当前行
+     *
+     * @param resultSet 已经定位到当前行的结果集
+     * @return 实体
+     */
+    public T mapRow(ResultSet resultSet) throws SQLException {
+        T entity = EntityHelper.newInstance(tableInfo);
+        try {
+            for (int i = 0; i < columnIndexes.length; i++) {
+                Object value = columnTypeHandlers[i].getResult(resultSet, columnIndexes[i]);
+                if (value != null) {
+                    EntityHelper.assignField(columnFields[i], entity, value);
+                }
+            }
+            for (int i = 0; i < featureKeyIndexes.length; i++) {
+                EntityHelper.assignFeatureKeyValue(featureKeyFields[i], entity, resultSet.getString(featureKeyIndexes[i]));
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Failed to create entity instance", e);
+        }
+        if (featureColumnIndex > 0) {
+            Object feature = tableInfo.getFeatureEncoding() == FeatureEncoding.JSONB ? resultSet.getBytes(featureColumnIndex) : resultSet.getString(featureColumnIndex);
+            EntityHelper.assignFeatureFields(feature, entity, tableInfo, featureKeys);
+        }
+        return entity;
+    }
+
+    /**
+     * 映射结果集中剩余的所有行
+     *
+     * @param resultSet 结果集
+     * @return 实体列表
+     */
+    public List<T> mapRows(ResultSet resultSet) throws SQLException {
+        List<T> result = new ArrayList<>();
+        while (resultSet.next()) {
+            result.add(mapRow(resultSet));
+        }
+        return result;
+    }
+
+    private static FieldInfo findField(Map<String, FieldInfo> fieldMap, String columnName) {
+        FieldInfo fieldInfo = fieldMap.get(columnName);
+        if (fieldInfo != null) {
+            return fieldInfo;
+        }
+        for (Map.Entry<String, FieldInfo> entry : fieldMap.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(columnName)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 默认转换器的字段直接按字段类型读取，自定义转换器的字段按列类型读取，保持转换器拿到的还是数据库值
+     */
+    private static Class<?> resolveJavaType(FieldInfo fieldInfo) {
+        if (fieldInfo.getDrConverterClass() != DefaultConverter.class) {
+            return Object.class;
+        }
+        return ClassUtils.primitiveToWrapper(fieldInfo.getField().getType());
+    }
+}
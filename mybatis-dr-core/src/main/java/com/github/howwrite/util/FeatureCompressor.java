@@ -0,0 +1,143 @@
+package com.github.howwrite.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * feature列的压缩，压缩后的数据以固定头部标记，和未压缩的JSON文本、JSONB可以在同一列中共存。
+ * 二进制格式为 2字节魔数 + 4字节原始长度 + Deflate数据，文本列中使用带前缀的Base64
+ *
+ * @author mybatis-dr
+ */
+public class FeatureCompressor {
+
+    private static final byte MAGIC_0 = 'D';
+
+    private static final byte MAGIC_1 = 'Z';
+
+    private static final int HEADER_LENGTH = 6;
+
+    /**
+     * 文本列中压缩数据的前缀，JSON文本不会以它开头
+     */
+    static final String TEXT_PREFIX = "DZ:";
+
+    private FeatureCompressor() {
+    }
+
+    /**
+     * @param data feature列的值
+     * @return 是否是压缩后的二进制数据
+     */
+    public static boolean isCompressed(byte[] data) {
+        return data.length > HEADER_LENGTH && data[0] == MAGIC_0 && data[1] == MAGIC_1;
+    }
+
+    /**
+     * @param text feature列的值
+     * @return 是否是压缩后的文本数据
+     */
+    public static boolean isCompressed(String text) {
+        return text.startsWith(TEXT_PREFIX);
+    }
+
+    /**
+     * 压缩为带头部的二进制数据
+     *
+     * @param data 原始数据
+     * @return 压缩后的数据
+     */
+    public static byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_LENGTH + data.length / 2);
+            out.write(MAGIC_0);
+            out.write(MAGIC_1);
+            out.write(data.length >>> 24);
+            out.write(data.length >>> 16);
+            out.write(data.length >>> 8);
+            out.write(data.length);
+            byte[] buffer = new byte[Math.min(8192, Math.max(64, data.length))];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 压缩JSON文本，结果仍然是文本，可以写入longtext列
+     *
+     * @param json JSON文本
+     * @return 带前缀的Base64文本
+     */
+    public static String compressText(String json) {
+        return TEXT_PREFIX + Base64.getEncoder().encodeToString(compress(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 解压{@link #compress}的结果。头部的长度来自数据库中的数据，不直接按它分配内存，
+     * 而是边解压边扩容，解压出的数据超过或不足头部的长度时抛出异常
+     *
+     * @param data 压缩后的数据
+     * @return 原始数据
+     */
+    public static byte[] decompress(byte[] data) {
+        int length = ((data[2] & 0xFF) << 24) | ((data[3] & 0xFF) << 16) | ((data[4] & 0xFF) << 8) | (data[5] & 0xFF);
+        if (length < 0) {
+            throw new RuntimeException("Invalid compressed feature length: " + length);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+            // 初始容量按压缩数据的大小估算，损坏的头部不会导致一次分配过大的数组
+            byte[] result = new byte[Math.min(length, Math.max(64, (data.length - HEADER_LENGTH) * 4))];
+            int offset = 0;
+            while (!inflater.finished()) {
+                if (offset == result.length) {
+                    if (offset >= length) {
+                        // 多出的数据说明头部与内容不符
+                        if (inflater.inflate(new byte[1]) > 0) {
+                            throw new RuntimeException("Compressed feature exceeds declared length " + length);
+                        }
+                        break;
+                    }
+                    result = Arrays.copyOf(result, (int) Math.min(length, Math.max(64L, (long) result.length * 2)));
+                }
+                int count = inflater.inflate(result, offset, result.length - offset);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += count;
+            }
+            if (offset != length) {
+                throw new RuntimeException("Truncated compressed feature, expect " + length + " bytes but got " + offset);
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new RuntimeException("Invalid compressed feature", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * 解压{@link #compressText}的结果
+     *
+     * @param text 带前缀的Base64文本
+     * @return 原始数据，UTF-8的JSON文本
+     */
+    public static byte[] decompressText(String text) {
+        return decompress(Base64.getDecoder().decode(text.substring(TEXT_PREFIX.length())));
+    }
+}
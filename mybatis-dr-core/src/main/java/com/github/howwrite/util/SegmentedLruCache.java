@@ -0,0 +1,260 @@
+package com.github.howwrite.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 容量有限、带过期时间的分段LRU缓存。
+ * <p>
+ * 新写入的条目先进入试用段，再次命中后晋升到保护段，保护段满了之后最久未访问的条目降级回试用段，
+ * 只被访问过一次的条目不会挤掉反复访问的热点条目。key按hash分到多个分片，每个分片单独加锁。
+ * <p>
+ * 写入时需要带上读取数据前取得的{@link #version()}，期间有过失效操作时不再写入，避免并发的更新之后又写入旧值
+ *
+ * @author mybatis-dr
+ */
+public class SegmentedLruCache<K, V> {
+
+    /**
+     * 试用段占每个分片容量的比例
+     */
+    private static final int PROBATION_PERCENT = 20;
+
+    /**
+     * 容量不小于该值时才分片，否则每个分片的容量太小
+     */
+    private static final int MIN_SIZE_TO_SHARD = 256;
+
+    private static final int SHARD_COUNT = 16;
+
+    private final Shard<K, V>[] shards;
+
+    private final long ttlNanos;
+
+    /**
+     * 失效版本，每次失效操作加一
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maximumSize 最多缓存的条目数量
+     * @param ttlMillis   写入后的过期时间，小于等于0时不过期
+     */
+    @SuppressWarnings("unchecked")
+    public SegmentedLruCache(int maximumSize, long ttlMillis) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        int shardCount = maximumSize >= MIN_SIZE_TO_SHARD ? SHARD_COUNT : 1;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            // 余数分给前面的分片，总容量等于maximumSize
+            int capacity = maximumSize / shardCount + (i < maximumSize % shardCount ? 1 : 0);
+            shards[i] = new Shard<>(capacity, version, evictionCount);
+        }
+        this.ttlNanos = ttlMillis > 0 ? ttlMillis * 1_000_000 : 0;
+    }
+
+    /**
+     * @param key key
+     * @return 缓存的值，不存在或者已过期时返回null
+     */
+    public V get(K key) {
+        V value = shardOf(key).get(key, System.nanoTime());
+        if (value == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * @return 当前的失效版本，读取数据前获取，写入缓存时传入
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * 写入缓存，读取数据之后发生过失效操作时不写入
+     *
+     * @param key     key
+     * @param value   值，不能为null
+     * @param version 读取数据前获取的{@link #version()}
+     */
+    public void put(K key, V value, long version) {
+        long expireAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : Long.MAX_VALUE;
+        shardOf(key).put(key, value, expireAt, version);
+    }
+
+    /**
+     * 失效单个key
+     *
+     * @param key key
+     */
+    public void invalidate(K key) {
+        version.incrementAndGet();
+        shardOf(key).remove(key);
+    }
+
+    /**
+     * 失效所有key
+     */
+    public void invalidateAll() {
+        version.incrementAndGet();
+        for (Shard<K, V> shard : shards) {
+            shard.clear();
+        }
+    }
+
+    /**
+     * @return 当前缓存的条目数量，包含尚未清理的过期条目
+     */
+    public long size() {
+        long size = 0;
+        for (Shard<K, V> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return 因为容量不足被淘汰的条目数量
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * @return 命中率，没有访问时为0
+     */
+    public double getHitRatio() {
+        long hits = hitCount.sum();
+        long total = hits + missCount.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    private Shard<K, V> shardOf(K key) {
+        if (shards.length == 1) {
+            return shards[0];
+        }
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return shards[hash & (shards.length - 1)];
+    }
+
+    private record Entry<V>(V value, long expireAt) {
+    }
+
+    /**
+     * 分片，试用段和保护段都是按访问顺序排列的LinkedHashMap，最久未访问的在最前面
+     */
+    private static final class Shard<SK, SV> {
+
+        private final int probationCapacity;
+
+        private final int protectedCapacity;
+
+        private final LinkedHashMap<SK, Entry<SV>> probation = new LinkedHashMap<>(16, 0.75f, true);
+
+        private final LinkedHashMap<SK, Entry<SV>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+        private final AtomicLong version;
+
+        private final LongAdder evictionCount;
+
+        private Shard(int capacity, AtomicLong version, LongAdder evictionCount) {
+            this.probationCapacity = Math.max(1, capacity * PROBATION_PERCENT / 100);
+            this.protectedCapacity = Math.max(0, capacity - probationCapacity);
+            this.version = version;
+            this.evictionCount = evictionCount;
+        }
+
+        private synchronized SV get(SK key, long now) {
+            Entry<SV> entry = protectedSegment.get(key);
+            if (entry != null) {
+                if (entry.expireAt() - now < 0) {
+                    protectedSegment.remove(key);
+                    return null;
+                }
+                return entry.value();
+            }
+            entry = probation.remove(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expireAt() - now < 0) {
+                return null;
+            }
+            // 第二次命中，晋升到保护段
+            if (protectedCapacity == 0) {
+                probation.put(key, entry);
+                return entry.value();
+            }
+            protectedSegment.put(key, entry);
+            if (protectedSegment.size() > protectedCapacity) {
+                Iterator<Map.Entry<SK, Entry<SV>>> iterator = protectedSegment.entrySet().iterator();
+                Map.Entry<SK, Entry<SV>> eldest = iterator.next();
+                iterator.remove();
+                probation.put(eldest.getKey(), eldest.getValue());
+                evictProbation();
+            }
+            return entry.value();
+        }
+
+        private synchronized void put(SK key, SV value, long expireAt, long expectedVersion) {
+            if (version.get() != expectedVersion) {
+                return;
+            }
+            Entry<SV> entry = new Entry<>(value, expireAt);
+            if (protectedSegment.containsKey(key)) {
+                protectedSegment.put(key, entry);
+                return;
+            }
+            probation.put(key, entry);
+            evictProbation();
+        }
+
+        private void evictProbation() {
+            Iterator<SK> iterator = probation.keySet().iterator();
+            while (probation.size() > probationCapacity) {
+                iterator.next();
+                iterator.remove();
+                evictionCount.increment();
+            }
+        }
+
+        private synchronized void remove(SK key) {
+            if (protectedSegment.remove(key) == null) {
+                probation.remove(key);
+            }
+        }
+
+        private synchronized void clear() {
+            probation.clear();
+            protectedSegment.clear();
+        }
+
+        private synchronized int size() {
+            return probation.size() + protectedSegment.size();
+        }
+    }
+}
@@ -1,154 +1,265 @@
 package com.github.howwrite.util;
 
+import com.github.howwrite.annotation.DrTable;
+import com.github.howwrite.codec.EntityCodec;
+import com.github.howwrite.constant.FeatureEncoding;
 import com.github.howwrite.model.FieldInfo;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
- * 表信息类，存储实体类与表的映射信息
+ * 表信息类，存储实体类与表的映射信息。
+ * 创建后不可修改，可以在线程间直接共享，由{@link EntityHelper#getTableInfo(Class)}按实体类缓存
  *
  * @author mybatis-dr
  */
-public class TableInfo<T> {
+public final class TableInfo<T> {
 
     /**
      * 表名
      */
-    private String tableName;
+    private final String tableName;
 
     /**
      * feature字段数据库中的列名
      */
-    private String featureColumnName;
+    private final String featureColumnName;
+
+    /**
+     * feature列的存储编码
+     */
+    private final FeatureEncoding featureEncoding;
+
+    /**
+     * feature列压缩的阈值，小于等于0时不压缩
+     */
+    private final int featureCompressThreshold;
     /**
      * id字段数据库中的列名称
      */
-    private String idColumnName;
+    private final String idColumnName;
 
     /**
      * 创建时间字段数据库中的列名
      * `created_time` datetime        not null default now() comment '创建时间'
      */
-    private String createdTimeColumnName;
+    private final String createdTimeColumnName;
     /**
      * 更新时间字段数据库中的列名
      * `updated_time` datetime        not null default now() on update current_timestamp comment '记录修改时间'
      */
-    private String updatedTimeColumnName;
+    private final String updatedTimeColumnName;
 
     /**
      * 实体类
      */
-    private Class<T> entityClass;
+    private final Class<T> entityClass;
 
     /**
      * 逻辑删除
      */
-    private Boolean logicDelete;
+    private final Boolean logicDelete;
+
+    /**
+     * 字段映射，key为数据库列名，value为Java的成员反射，只用于按列名查找
+     */
+    private final Map<String, FieldInfo> fieldMap;
+
+    /**
+     * 普通字段的列名，按字段声明顺序，遍历时使用
+     */
+    private final String[] columnNames;
 
     /**
-     * 字段映射，key为数据库列名，value为Java的成员反射
+     * 与columnNames一一对应的普通字段
      */
-    private Map<String, FieldInfo> fieldMap;
+    private final FieldInfo[] columnFields;
 
     /**
      * JSON字段列表，这些字段将被合并到feature字段中
      */
-    private Map<String, FieldInfo> jsonFieldMap;
+    private final Map<String, FieldInfo> jsonFieldMap;
+
+    /**
+     * JSON字段的key，按字段声明顺序，写入feature时按这个顺序输出
+     */
+    private final String[] jsonFieldNames;
 
-    private FieldInfo idField;
+    /**
+     * 与jsonFieldNames一一对应的JSON字段
+     */
+    private final FieldInfo[] jsonFields;
+
+    private final FieldInfo idField;
 
     /**
      * 冲突时需要更新的字段名称
      */
-    private Set<String> whenDuplicateUpdateFields;
+    private final Set<String> whenDuplicateUpdateFields;
 
-    public Set<String> getWhenDuplicateUpdateFields() {
-        return whenDuplicateUpdateFields;
+    /**
+     * 注解处理器生成的编解码器，不存在时为null
+     */
+    private final EntityCodec<T> entityCodec;
+
+    /**
+     * 实体构造器，优先使用编解码器，其次是LambdaMetafactory生成的构造器
+     */
+    private final Supplier<T> instanceSupplier;
+
+    /**
+     * 按id缓存实体的最大数量，小于等于0时不缓存
+     */
+    private final int entityCacheSize;
+
+    /**
+     * 实体缓存的过期秒数，小于等于0时不过期
+     */
+    private final long entityCacheTtlSeconds;
+
+    /**
+     * 查询缓存的最大条目数，小于等于0时不缓存
+     */
+    private final int queryCacheSize;
+
+    /**
+     * 查询缓存的过期秒数，小于等于0时不过期
+     */
+    private final long queryCacheTtlSeconds;
+
+    TableInfo(Class<T> entityClass, DrTable drTable, EntityCodec<T> entityCodec, Supplier<T> instanceSupplier,
+              LinkedHashMap<String, FieldInfo> fieldMap, LinkedHashMap<String, FieldInfo> jsonFieldMap,
+              FieldInfo idField, Set<String> whenDuplicateUpdateFields) {
+        this.entityClass = entityClass;
+        this.tableName = drTable.value();
+        this.featureColumnName = drTable.featureColumnName();
+        this.featureEncoding = drTable.featureEncoding();
+        this.featureCompressThreshold = drTable.featureCompressThreshold();
+        this.logicDelete = drTable.logicDelete();
+        this.createdTimeColumnName = drTable.createdTimeColumnName();
+        this.updatedTimeColumnName = drTable.updatedTimeColumnName();
+        this.idColumnName = drTable.idColumnName();
+        this.entityCacheSize = drTable.entityCacheSize();
+        this.entityCacheTtlSeconds = drTable.entityCacheTtlSeconds();
+        this.queryCacheSize = drTable.queryCacheSize();
+        this.queryCacheTtlSeconds = drTable.queryCacheTtlSeconds();
+        this.entityCodec = entityCodec;
+        this.instanceSupplier = instanceSupplier;
+        this.fieldMap = Collections.unmodifiableMap(fieldMap);
+        this.columnNames = fieldMap.keySet().toArray(new String[0]);
+        this.columnFields = fieldMap.values().toArray(new FieldInfo[0]);
+        this.jsonFieldMap = Collections.unmodifiableMap(jsonFieldMap);
+        this.jsonFieldNames = jsonFieldMap.keySet().toArray(new String[0]);
+        this.jsonFields = jsonFieldMap.values().toArray(new FieldInfo[0]);
+        this.idField = idField;
+        this.whenDuplicateUpdateFields = Set.copyOf(whenDuplicateUpdateFields);
     }
 
-    public void setWhenDuplicateUpdateFields(Set<String> whenDuplicateUpdateFields) {
-        this.whenDuplicateUpdateFields = whenDuplicateUpdateFields;
+    public Supplier<T> getInstanceSupplier() {
+        return instanceSupplier;
     }
 
-    public String getTableName() {
-        return tableName;
+    public EntityCodec<T> getEntityCodec() {
+        return entityCodec;
+    }
+
+    public Set<String> getWhenDuplicateUpdateFields() {
+        return whenDuplicateUpdateFields;
     }
 
-    public void setTableName(String tableName) {
-        this.tableName = tableName;
+    public String getTableName() {
+        return tableName;
     }
 
     public String getFeatureColumnName() {
         return featureColumnName;
     }
 
-    public void setFeatureColumnName(String featureColumnName) {
-        this.featureColumnName = featureColumnName;
+    public FeatureEncoding getFeatureEncoding() {
+        return featureEncoding;
     }
 
-    public Class<T> getEntityClass() {
-        return entityClass;
+    public int getFeatureCompressThreshold() {
+        return featureCompressThreshold;
     }
 
-    public void setEntityClass(Class<T> entityClass) {
-        this.entityClass = entityClass;
+    public Class<T> getEntityClass() {
+        return entityClass;
     }
 
     public Map<String, FieldInfo> getFieldMap() {
         return fieldMap;
     }
 
-    public void setFieldMap(Map<String, FieldInfo> fieldMap) {
-        this.fieldMap = fieldMap;
+    /**
+     * @return 普通字段的列名，调用方不能修改返回的数组
+     */
+    public String[] getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * @return 与getColumnNames一一对应的普通字段，调用方不能修改返回的数组
+     */
+    public FieldInfo[] getColumnFields() {
+        return columnFields;
     }
 
     public Map<String, FieldInfo> getJsonFieldMap() {
         return jsonFieldMap;
     }
 
-    public void setJsonFieldMap(Map<String, FieldInfo> jsonFieldMap) {
-        this.jsonFieldMap = jsonFieldMap;
+    /**
+     * @return JSON字段的key，调用方不能修改返回的数组
+     */
+    public String[] getJsonFieldNames() {
+        return jsonFieldNames;
+    }
+
+    /**
+     * @return 与getJsonFieldNames一一对应的JSON字段，调用方不能修改返回的数组
+     */
+    public FieldInfo[] getJsonFields() {
+        return jsonFields;
     }
 
     public String getCreatedTimeColumnName() {
         return createdTimeColumnName;
     }
 
-    public void setCreatedTimeColumnName(String createdTimeColumnName) {
-        this.createdTimeColumnName = createdTimeColumnName;
-    }
-
     public String getUpdatedTimeColumnName() {
         return updatedTimeColumnName;
     }
 
-    public void setUpdatedTimeColumnName(String updatedTimeColumnName) {
-        this.updatedTimeColumnName = updatedTimeColumnName;
-    }
-
     public Boolean getLogicDelete() {
         return logicDelete;
     }
 
-    public void setLogicDelete(Boolean logicDelete) {
-        this.logicDelete = logicDelete;
-    }
-
     public String getIdColumnName() {
         return idColumnName;
     }
 
-    public void setIdColumnName(String idColumnName) {
-        this.idColumnName = idColumnName;
-    }
-
     public FieldInfo getIdField() {
         return idField;
     }
 
-    public void setIdField(FieldInfo idField) {
-        this.idField = idField;
+    public int getEntityCacheSize() {
+        return entityCacheSize;
+    }
+
+    public long getEntityCacheTtlSeconds() {
+        return entityCacheTtlSeconds;
+    }
+
+    public int getQueryCacheSize() {
+        return queryCacheSize;
+    }
+
+    public long getQueryCacheTtlSeconds() {
+        return queryCacheTtlSeconds;
     }
-}
\ No newline at end of file
+}
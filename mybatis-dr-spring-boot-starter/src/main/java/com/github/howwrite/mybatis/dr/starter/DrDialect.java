@@ -0,0 +1,111 @@
+package com.github.howwrite.mybatis.dr.starter;
+
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 数据库的类型和版本，从DatabaseMetaData读取，用于判断数据库是否支持JSON函数、窗口函数等非通用的语法
+ *
+ * @author mybatis-dr
+ */
+public final class DrDialect {
+
+    /**
+     * MariaDB的版本号，MySQL驱动连接MariaDB时版本形如5.5.5-10.6.12-MariaDB
+     */
+    private static final Pattern MARIADB_VERSION = Pattern.compile("(?:5\\.5\\.5-)?(\\d+)\\.(\\d+)");
+
+    private final String productName;
+
+    private final boolean mariaDb;
+
+    private final int majorVersion;
+
+    private final int minorVersion;
+
+    public DrDialect(String productName, String productVersion, int majorVersion, int minorVersion) {
+        this.productName = productName;
+        this.mariaDb = containsIgnoreCase(productName, "MariaDB") || containsIgnoreCase(productVersion, "MariaDB");
+        Matcher matcher = mariaDb && productVersion != null ? MARIADB_VERSION.matcher(productVersion) : null;
+        if (matcher != null && matcher.lookingAt()) {
+            this.majorVersion = Integer.parseInt(matcher.group(1));
+            this.minorVersion = Integer.parseInt(matcher.group(2));
+        } else {
+            this.majorVersion = majorVersion;
+            this.minorVersion = minorVersion;
+        }
+    }
+
+    /**
+     * 读取数据库的类型和版本，在事务中时使用事务的连接
+     *
+     * @param dataSource 数据源
+     * @return 方言
+     */
+    public static DrDialect detect(DataSource dataSource) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            return new DrDialect(metaData.getDatabaseProductName(), metaData.getDatabaseProductVersion(),
+                    metaData.getDatabaseMajorVersion(), metaData.getDatabaseMinorVersion());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read database metadata", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * @return 是否是MySQL，不包含MariaDB
+     */
+    public boolean isMySql() {
+        return !mariaDb && "MySQL".equalsIgnoreCase(productName);
+    }
+
+    public boolean isMariaDb() {
+        return mariaDb;
+    }
+
+    /**
+     * @return 是否支持JSON_EXTRACT、JSON_UNQUOTE、JSON_SET，MySQL 5.7及MariaDB 10.2开始支持
+     */
+    public boolean supportsJsonFunctions() {
+        return isMySql() ? atLeast(5, 7) : mariaDb && atLeast(10, 2);
+    }
+
+    /**
+     * @return 是否支持COUNT(*) OVER()等窗口函数，MySQL 8.0及MariaDB 10.2开始支持，其他数据库视为支持
+     */
+    public boolean supportsWindowFunctions() {
+        if (isMySql()) {
+            return atLeast(8, 0);
+        }
+        return !mariaDb || atLeast(10, 2);
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public int getMajorVersion() {
+        return majorVersion;
+    }
+
+    public int getMinorVersion() {
+        return minorVersion;
+    }
+
+    private boolean atLeast(int major, int minor) {
+        return majorVersion > major || (majorVersion == major && minorVersion >= minor);
+    }
+
+    private static boolean containsIgnoreCase(String value, String part) {
+        return value != null && value.toLowerCase().contains(part.toLowerCase());
+    }
+}
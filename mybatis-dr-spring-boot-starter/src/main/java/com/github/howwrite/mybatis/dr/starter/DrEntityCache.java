@@ -0,0 +1,195 @@
+package com.github.howwrite.mybatis.dr.starter;
+
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import com.github.howwrite.query.QueryCondition;
+import com.github.howwrite.util.EntityHelper;
+import com.github.howwrite.util.SegmentedLruCache;
+import com.github.howwrite.util.TableInfo;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按id缓存实体，由{@link com.github.howwrite.annotation.DrTable#entityCacheSize()}开启。
+ * <p>
+ * 缓存中保存实体的JSONB字节，每次读取都反序列化出新的实体，调用方修改返回的实体不会影响缓存。
+ * 事务中的读取不使用缓存，写入在语句执行后和事务结束后各失效一次，避免事务提交前其他线程读到旧值又写回缓存。
+ * <p>
+ * 缓存按实体类共享，{@link DrRepository}和生成的XxxDrRepository等所有仓库实例读写同一个缓存；
+ * 失效按表名进行，映射到同一张表的其他实体类的缓存也会一起失效
+ *
+ * @author mybatis-dr
+ */
+public class DrEntityCache<T> {
+
+    /**
+     * 按实体类共享的缓存，没有开启时为empty
+     */
+    private static final ClassValue<Optional<DrEntityCache<?>>> CACHES = new ClassValue<>() {
+        @Override
+        protected Optional<DrEntityCache<?>> computeValue(Class<?> type) {
+            TableInfo<?> tableInfo = EntityHelper.getTableInfo(type);
+            if (tableInfo.getEntityCacheSize() <= 0 || tableInfo.getIdField() == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new DrEntityCache<>(tableInfo));
+        }
+    };
+
+    /**
+     * 按表名分组的缓存，写入时失效同一张表的所有缓存
+     */
+    private static final Map<String, Set<DrEntityCache<?>>> TABLE_CACHES = new ConcurrentHashMap<>();
+
+    private final TableInfo<T> tableInfo;
+
+    private final SegmentedLruCache<Object, byte[]> cache;
+
+    private DrEntityCache(TableInfo<T> tableInfo) {
+        this.tableInfo = tableInfo;
+        this.cache = new SegmentedLruCache<>(tableInfo.getEntityCacheSize(), tableInfo.getEntityCacheTtlSeconds() * 1000);
+    }
+
+    /**
+     * @param entityClass 实体类
+     * @return 实体类共享的缓存，没有开启时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> DrEntityCache<T> of(Class<T> entityClass) {
+        DrEntityCache<T> entityCache = (DrEntityCache<T>) CACHES.get(entityClass).orElse(null);
+        if (entityCache != null) {
+            // ClassValue并发计算时只保留一个值，在这里登记实际使用的缓存
+            TABLE_CACHES.computeIfAbsent(entityCache.tableInfo.getTableName(), tableName -> ConcurrentHashMap.newKeySet()).add(entityCache);
+        }
+        return entityCache;
+    }
+
+    /**
+     * 写入后失效一张表的所有实体缓存，纯id条件只失效对应的id，否则失效整张表
+     *
+     * @param tableName 表名
+     * @param condition 写入的条件，为null时失效整张表
+     */
+    public static void invalidateTable(String tableName, QueryCondition<?> condition) {
+        Set<DrEntityCache<?>> entityCaches = TABLE_CACHES.get(tableName);
+        if (entityCaches != null) {
+            entityCaches.forEach(entityCache -> entityCache.invalidateLocal(condition));
+        }
+    }
+
+    /**
+     * 条件是否是纯id查询，只有一个id的等于或IN条件，没有指定查询列、排序、offset和游标
+     *
+     * @param condition 查询条件
+     * @return 查询的id，不是纯id查询时返回null
+     */
+    public List<Object> lookupIds(QueryCondition<?> condition) {
+        if (condition == null || condition.getConditions().size() != 1
+                || (condition.getSelectKeys() != null && condition.getSelectKeys().length > 0)
+                || !condition.getOrders().isEmpty() || condition.getOffset() != null || condition.getSeekValues() != null) {
+            return null;
+        }
+        QueryCondition.Condition item = condition.getConditions().getFirst();
+        if (item.getFeatureKey() != null || !tableInfo.getIdColumnName().equals(item.getField()) || item.getValue() == null) {
+            return null;
+        }
+        if (QueryCondition.OPERATOR_EQ.equals(item.getOperator())) {
+            return condition.getLimit() == null || condition.getLimit() > 0 ? List.of(item.getValue()) : null;
+        }
+        if (QueryCondition.OPERATOR_IN.equals(item.getOperator()) && condition.getLimit() == null
+                && item.getValue() instanceof Collection<?> values && !values.isEmpty() && values.stream().allMatch(Objects::nonNull)) {
+            return new ArrayList<>(values);
+        }
+        return null;
+    }
+
+    /**
+     * @return 当前事务中是否可以读写缓存
+     */
+    public boolean readable() {
+        return !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    /**
+     * @return 读取数据库前获取的版本，写入缓存时传入
+     */
+    public long version() {
+        return cache.version();
+    }
+
+    /**
+     * @param id id
+     * @return 缓存的实体副本，不存在时返回null
+     */
+    public T get(Object id) {
+        byte[] bytes = cache.get(keyOf(id));
+        return bytes == null ? null : JSONB.parseObject(bytes, tableInfo.getEntityClass(), JSONReader.Feature.FieldBased);
+    }
+
+    /**
+     * @param entity  从数据库读取的实体
+     * @param version 读取数据库前获取的版本
+     */
+    public void put(T entity, long version) {
+        Object id = tableInfo.getIdField().getValue(entity);
+        if (id != null) {
+            cache.put(keyOf(id), JSONB.toBytes(entity, JSONWriter.Feature.FieldBased), version);
+        }
+    }
+
+    /**
+     * 写入后失效，同{@link #invalidateTable(String, QueryCondition)}
+     *
+     * @param condition 写入的条件，为null时失效整张表
+     */
+    public void invalidate(QueryCondition<?> condition) {
+        invalidateTable(tableInfo.getTableName(), condition);
+    }
+
+    private void invalidateLocal(QueryCondition<?> condition) {
+        List<Object> ids = condition == null ? null : lookupIds(condition);
+        runNowAndAfterCompletion(ids == null ? cache::invalidateAll : () -> ids.forEach(id -> cache.invalidate(keyOf(id))));
+    }
+
+    /**
+     * 立即执行失效，在事务中时事务结束后再执行一次
+     */
+    static void runNowAndAfterCompletion(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * id统一为同一种类型，Integer和Long的id对应同一个key
+     */
+    public Object keyOf(Object id) {
+        if (id instanceof Integer || id instanceof Short || id instanceof Byte) {
+            return ((Number) id).longValue();
+        }
+        return id;
+    }
+
+    /**
+     * @return 底层缓存，用于观察命中率和淘汰数量
+     */
+    public SegmentedLruCache<Object, byte[]> getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,190 @@
+package com.github.howwrite.mybatis.dr.starter;
+
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import com.github.howwrite.sql.DrSqlRenderer;
+import com.github.howwrite.sql.DrStatementType;
+import com.github.howwrite.util.EntityHelper;
+import com.github.howwrite.util.SegmentedLruCache;
+import com.github.howwrite.util.TableInfo;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按条件缓存查询结果，由{@link com.github.howwrite.annotation.DrTable#queryCacheSize()}开启。
+ * <p>
+ * key为{@link DrSqlRenderer#fingerprint}计算的SQL形状（字段、操作符、排序、查询列、limit/offset）加上按顺序收集的绑定值，
+ * 同一形状同样参数的查询命中同一个条目。通过仓库的任意写入都会使整张表的查询缓存失效，
+ * 失效时递增的版本保证写入之前开始的查询不会再把旧结果写回缓存。
+ * <p>
+ * 与{@link DrEntityCache}相同，缓存按实体类在所有仓库实例间共享，失效按表名进行
+ *
+ * @author mybatis-dr
+ */
+public class DrQueryCache<T> {
+
+    /**
+     * 按实体类共享的缓存，没有开启时为empty
+     */
+    private static final ClassValue<Optional<DrQueryCache<?>>> CACHES = new ClassValue<>() {
+        @Override
+        protected Optional<DrQueryCache<?>> computeValue(Class<?> type) {
+            TableInfo<?> tableInfo = EntityHelper.getTableInfo(type);
+            return tableInfo.getQueryCacheSize() > 0 ? Optional.of(new DrQueryCache<>(tableInfo)) : Optional.empty();
+        }
+    };
+
+    /**
+     * 按表名分组的缓存，任意写入都失效同一张表的所有查询缓存
+     */
+    private static final Map<String, Set<DrQueryCache<?>>> TABLE_CACHES = new ConcurrentHashMap<>();
+
+    /**
+     * 结果超过该行数时不缓存，避免单个条目占用过多内存
+     */
+    public static final int MAX_CACHED_ROWS = 1000;
+
+    private final TableInfo<T> tableInfo;
+
+    private final SegmentedLruCache<Key, Object> cache;
+
+    private DrQueryCache(TableInfo<T> tableInfo) {
+        this.tableInfo = tableInfo;
+        this.cache = new SegmentedLruCache<>(tableInfo.getQueryCacheSize(), tableInfo.getQueryCacheTtlSeconds() * 1000);
+    }
+
+    /**
+     * @param entityClass 实体类
+     * @return 实体类共享的缓存，没有开启时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> DrQueryCache<T> of(Class<T> entityClass) {
+        DrQueryCache<T> queryCache = (DrQueryCache<T>) CACHES.get(entityClass).orElse(null);
+        if (queryCache != null) {
+            // ClassValue并发计算时只保留一个值，在这里登记实际使用的缓存
+            TABLE_CACHES.computeIfAbsent(queryCache.tableInfo.getTableName(), tableName -> ConcurrentHashMap.newKeySet()).add(queryCache);
+        }
+        return queryCache;
+    }
+
+    /**
+     * 写入后失效一张表的所有查询缓存
+     *
+     * @param tableName 表名
+     */
+    public static void invalidateTable(String tableName) {
+        Set<DrQueryCache<?>> queryCaches = TABLE_CACHES.get(tableName);
+        if (queryCaches != null) {
+            queryCaches.forEach(queryCache -> DrEntityCache.runNowAndAfterCompletion(queryCache.cache::invalidateAll));
+        }
+    }
+
+    /**
+     * @return 当前事务中是否可以读写缓存
+     */
+    public boolean readable() {
+        return !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    /**
+     * @return 读取数据库前获取的版本，写入缓存时传入
+     */
+    public long version() {
+        return cache.version();
+    }
+
+    /**
+     * 计算查询的缓存key
+     *
+     * @param type   语句类型
+     * @param params 传给Mapper的参数Map
+     * @return 缓存key，不能缓存时返回null
+     */
+    public Key keyOf(DrStatementType type, Map<String, Object> params) {
+        StringBuilder fingerprint = new StringBuilder(128);
+        if (!DrSqlRenderer.fingerprint(type, params, fingerprint)) {
+            return null;
+        }
+        List<Object> bindValues = new ArrayList<>();
+        DrSqlRenderer.bind(type, params, null, bindValues);
+        return new Key(fingerprint.toString(), bindValues);
+    }
+
+    /**
+     * @param key 缓存key
+     * @return 缓存的实体列表副本，不存在时返回null
+     */
+    public List<T> getRecords(Key key) {
+        if (!(cache.get(key) instanceof byte[][] rows)) {
+            return null;
+        }
+        List<T> records = new ArrayList<>(rows.length);
+        for (byte[] row : rows) {
+            records.add(JSONB.parseObject(row, tableInfo.getEntityClass(), JSONReader.Feature.FieldBased));
+        }
+        return records;
+    }
+
+    /**
+     * @param key     缓存key
+     * @param records 从数据库读取的实体列表，超过{@link #MAX_CACHED_ROWS}行时不缓存
+     * @param version 读取数据库前获取的版本
+     */
+    public void putRecords(Key key, List<T> records, long version) {
+        if (records.size() > MAX_CACHED_ROWS) {
+            return;
+        }
+        byte[][] rows = new byte[records.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = JSONB.toBytes(records.get(i), JSONWriter.Feature.FieldBased);
+        }
+        cache.put(key, rows, version);
+    }
+
+    /**
+     * @param key 缓存key
+     * @return 缓存的记录数，不存在时返回null
+     */
+    public Long getCount(Key key) {
+        return cache.get(key) instanceof Long count ? count : null;
+    }
+
+    /**
+     * @param key     缓存key
+     * @param count   从数据库读取的记录数
+     * @param version 读取数据库前获取的版本
+     */
+    public void putCount(Key key, long count, long version) {
+        cache.put(key, count, version);
+    }
+
+    /**
+     * 写入后失效整张表的查询缓存，同{@link #invalidateTable(String)}
+     */
+    public void invalidate() {
+        invalidateTable(tableInfo.getTableName());
+    }
+
+    /**
+     * @return 底层缓存，用于观察命中率和淘汰数量
+     */
+    public SegmentedLruCache<Key, Object> getCache() {
+        return cache;
+    }
+
+    /**
+     * 查询缓存的key
+     *
+     * @param fingerprint SQL形状指纹
+     * @param bindValues  按占位符顺序的绑定值
+     */
+    public record Key(String fingerprint, List<Object> bindValues) {
+    }
+}
@@ -1,166 +1,193 @@
 package com.github.howwrite.mybatis.dr.starter;
 
-import com.github.howwrite.constant.MybatisDrContent;
 import com.github.howwrite.mapper.DynamicSqlMapper;
-import com.github.howwrite.model.FieldInfo;
+import com.github.howwrite.query.Page;
 import com.github.howwrite.query.QueryCondition;
 import com.github.howwrite.treasure.spring.utils.SpringUtils;
-import com.github.howwrite.util.EntityHelper;
-import com.github.howwrite.util.TableInfo;
+import org.apache.ibatis.session.SqlSessionFactory;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class DrRepository {
 
     /**
-     * 表信息
+     * 按实体缓存的仓库，表信息和缓存与容器无关，Mapper和配置每次从当前容器获取，
+     * 与缓存的仓库不一致时(容器刷新、devtools重启)重新创建
      */
-    private static final Map<Class<?>, TableInfo<?>> tableInfoMap = new ConcurrentHashMap<>();
+    private static final ClassValue<AtomicReference<TypedDrRepository<?>>> REPOSITORIES = new ClassValue<>() {
+        @Override
+        protected AtomicReference<TypedDrRepository<?>> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
 
     /**
-     * 动态Mapper
+     * 获取实体的仓库
+     *
+     * @param entityClass 实体类
+     * @return 仓库
      */
-    private static DynamicSqlMapper getDynamicSqlMapper() {
-        return SpringUtils.getBean(DynamicSqlMapper.class);
+    @SuppressWarnings("unchecked")
+    public static <T> TypedDrRepository<T> repository(Class<T> entityClass) {
+        DynamicSqlMapper mapper = SpringUtils.getBean(DynamicSqlMapper.class);
+        SqlSessionFactory sqlSessionFactory = SpringUtils.getBean(SqlSessionFactory.class);
+        MyBatisDrProperties properties = SpringUtils.getBean(MyBatisDrProperties.class);
+        AtomicReference<TypedDrRepository<?>> holder = REPOSITORIES.get(entityClass);
+        TypedDrRepository<?> repository = holder.get();
+        if (repository == null || !repository.isBackedBy(mapper, sqlSessionFactory, properties)) {
+            repository = new TypedDrRepository<>(entityClass, mapper, sqlSessionFactory, properties);
+            holder.set(repository);
+        }
+        return (TypedDrRepository<T>) repository;
     }
 
-    private static TableInfo<?> getTableInfo(Class<?> entityClass) {
-        TableInfo<?> tableInfo = tableInfoMap.get(entityClass);
-        if (tableInfo == null) {
-            tableInfo = EntityHelper.getTableInfo(entityClass);
-            tableInfoMap.put(entityClass, tableInfo);
-        }
-        return tableInfo;
+    @SuppressWarnings("unchecked")
+    private static <T> TypedDrRepository<T> repositoryOf(T entity) {
+        return repository((Class<T>) entity.getClass());
     }
 
+    private static <T> TypedDrRepository<T> repositoryOf(QueryCondition<T> condition) {
+        return repository(condition.currentEntityClass());
+    }
 
     public static int insert(Object entity) {
-        TableInfo<?> tableInfo = getTableInfo(entity.getClass());
-        Map<String, Object> params = new HashMap<>();
-        params.put("tableName", tableInfo.getTableName());
-        params.put("entity", EntityHelper.parseEntity(entity, tableInfo, true));
-        int insertResult = getDynamicSqlMapper().insert(params);
-        writeAutoGenId(tableInfo, entity, params);
-        return insertResult;
+        return repositoryOf(entity).insert(entity);
     }
 
     public static int insertOrUpdate(Object entity) {
-        TableInfo<?> tableInfo = getTableInfo(entity.getClass());
-        Map<String, Object> params = new HashMap<>();
-        params.put("tableName", tableInfo.getTableName());
-        params.put("entity", EntityHelper.parseEntity(entity, tableInfo, true));
-        params.put("whenDuplicateUpdateFields", tableInfo.getWhenDuplicateUpdateFields());
-        int insertResult = getDynamicSqlMapper().insertOrUpdate(params);
-        writeAutoGenId(tableInfo, entity, params);
-        return insertResult;
+        return repositoryOf(entity).insertOrUpdate(entity);
     }
 
 
+    @SuppressWarnings("unchecked")
     public static int batchInsert(List<?> entities) {
         if (entities == null || entities.isEmpty()) {
             return 0;
         }
-
-        TableInfo<?> tableInfo = getTableInfo(entities.getFirst().getClass());
-        Map<String, Object> params = new HashMap<>();
-        params.put("tableName", tableInfo.getTableName());
-        List<Map<String, Object>> entitiesParam = EntityHelper.parseEntities(entities, tableInfo, true);
-        int insertResult = getDynamicSqlMapper().batchInsert(params, entitiesParam);
-        for (int i = 0; i < entities.size(); i++) {
-            Object entity = entities.get(i);
-            Map<String, Object> entityParam = entitiesParam.get(i);
-            writeAutoGenId(tableInfo, entity, entityParam);
-        }
-        return insertResult;
+        return repositoryOf((Object) entities.getFirst()).batchInsert((List<Object>) entities);
     }
 
 
+    @SuppressWarnings("unchecked")
     public static int batchInsertOrUpdate(List<?> entities) {
         if (entities == null || entities.isEmpty()) {
             return 0;
         }
-
-        TableInfo<?> tableInfo = getTableInfo(entities.getFirst().getClass());
-        Map<String, Object> params = new HashMap<>();
-        params.put("tableName", tableInfo.getTableName());
-        params.put("whenDuplicateUpdateFields", tableInfo.getWhenDuplicateUpdateFields());
-        List<Map<String, Object>> entitiesParam = EntityHelper.parseEntities(entities, tableInfo, true);
-        return getDynamicSqlMapper().batchInsertOrUpdate(params, entitiesParam);
+        return repositoryOf((Object) entities.getFirst()).batchInsertOrUpdate((List<Object>) entities);
     }
 
 
+    @SuppressWarnings("unchecked")
     public static int update(Object entity, QueryCondition<?> condition) {
-        TableInfo<?> tableInfo = getTableInfo(entity.getClass());
-        Map<String, Object> params = new HashMap<>();
-        params.put("tableName", tableInfo.getTableName());
-        params.put("entity", EntityHelper.parseEntity(entity, tableInfo, false));
-        params.put("condition", condition);
-        params.put("logicDelete", tableInfo.getLogicDelete());
-        return getDynamicSqlMapper().update(params);
-    }
-
-
-    public static int delete(QueryCondition<?> condition) {
-        TableInfo<?> tableInfo = getTableInfo(condition.currentEntityClass());
-        Map<String, Object> params = new HashMap<>();
-        params.put("tableName", tableInfo.getTableName());
-        params.put("condition", condition);
-        params.put("logicDelete", tableInfo.getLogicDelete());
-        if (Boolean.TRUE.equals(tableInfo.getLogicDelete())) {
-            return getDynamicSqlMapper().logicDelete(params);
-        }
-        return getDynamicSqlMapper().delete(params);
+        return repositoryOf(entity).update(entity, (QueryCondition<Object>) condition);
+    }
+
+    /**
+     * 更新记录，feature列不整体覆盖，只通过JSON_SET写入实体中非null的JSON字段，其他key保持不变。
+     * 要求feature列为未压缩的JSON文本
+     *
+     * @param entity    实体，null字段不更新
+     * @param condition 条件
+     * @return 影响的行数
+     */
+    @SuppressWarnings("unchecked")
+    public static int patchUpdate(Object entity, QueryCondition<?> condition) {
+        return repositoryOf(entity).patchUpdate(entity, (QueryCondition<Object>) condition);
+    }
+
+
+    public static <T> int delete(QueryCondition<T> condition) {
+        return repositoryOf(condition).delete(condition);
     }
 
 
     public static <T> List<T> findByCondition(QueryCondition<T> condition) {
-        TableInfo<T> tableInfo = (TableInfo<T>) getTableInfo(condition.currentEntityClass());
-        Map<String, Object> params = new HashMap<>();
-        params.put("tableName", tableInfo.getTableName());
-        params.put("condition", condition);
-        params.put("logicDelete", tableInfo.getLogicDelete());
-        return getDynamicSqlMapper().findByCondition(params)
-                .stream().map(it -> EntityHelper.convertToEntity(it, tableInfo)).collect(Collectors.toList());
+        return repositoryOf(condition).findByCondition(condition);
     }
 
 
     public static <T> Optional<T> findOne(QueryCondition<T> condition) {
-        TableInfo<T> tableInfo = (TableInfo<T>) getTableInfo(condition.currentEntityClass());
-        condition.setLimit(1);
-        Map<String, Object> params = new HashMap<>();
-        params.put("tableName", tableInfo.getTableName());
-        params.put("condition", condition);
-        params.put("logicDelete", tableInfo.getLogicDelete());
-        return getDynamicSqlMapper().findByCondition(params).stream().map(it -> EntityHelper.convertToEntity(it, tableInfo)).findFirst();
-    }
-
-    public static long count(QueryCondition<?> condition) {
-        TableInfo<?> tableInfo = getTableInfo(condition.currentEntityClass());
-        Map<String, Object> params = new HashMap<>();
-        params.put("tableName", tableInfo.getTableName());
-        params.put("condition", condition);
-        params.put("logicDelete", tableInfo.getLogicDelete());
-        return getDynamicSqlMapper().count(params);
-    }
-
-    private static void writeAutoGenId(TableInfo<?> tableInfo, Object entity, Map<String, Object> params) {
-        FieldInfo idField = tableInfo.getIdField();
-        if (idField == null) {
-            return;
-        }
-        Object genId = params.get(MybatisDrContent.AUTO_GEN_ID_FIELD_NAME);
-        if (genId == null) {
-            return;
-        }
-        try {
-            EntityHelper.assignField(idField, entity, genId);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return repositoryOf(condition).findOne(condition);
+    }
+
+    /**
+     * 按页码分页查询，同时返回总数，见{@link TypedDrRepository#findPage(QueryCondition)}
+     *
+     * @param condition 查询条件，需要通过setPageInfo设置页码
+     * @return 当前页和总数
+     */
+    public static <T> Page<T> findPage(QueryCondition<T> condition) {
+        return repositoryOf(condition).findPage(condition);
+    }
+
+    /**
+     * 游标分页查询，见{@link TypedDrRepository#seek(QueryCondition, int)}
+     *
+     * @param condition 查询条件
+     * @param pageSize  每页的记录数
+     * @return 当前页
+     */
+    public static <T> Page<T> seek(QueryCondition<T> condition, int pageSize) {
+        return repositoryOf(condition).seek(condition, pageSize);
+    }
+
+    /**
+     * 流式查询，逐行映射实体并交给调用方，调用方需要关闭返回的Stream（try-with-resources），
+     * 在事务中时复用事务的SqlSession，否则占用一个SqlSession直到Stream关闭
+     *
+     * @param condition 查询条件
+     * @return 实体流
+     */
+    public static <T> Stream<T> stream(QueryCondition<T> condition) {
+        return repositoryOf(condition).stream(condition);
+    }
+
+    /**
+     * 流式查询
+     *
+     * @param condition 查询条件
+     * @param fetchSize JDBC fetchSize
+     * @return 实体流
+     */
+    public static <T> Stream<T> stream(QueryCondition<T> condition, int fetchSize) {
+        return repositoryOf(condition).stream(condition, fetchSize);
+    }
+
+    /**
+     * 流式遍历，查询结束后自动释放游标
+     *
+     * @param condition 查询条件
+     * @param consumer  实体消费者
+     */
+    public static <T> void forEach(QueryCondition<T> condition, Consumer<T> consumer) {
+        repositoryOf(condition).forEach(condition, consumer);
+    }
+
+    public static <T> long count(QueryCondition<T> condition) {
+        return repositoryOf(condition).count(condition);
+    }
+
+    /**
+     * 是否存在满足条件的记录
+     *
+     * @param condition 查询条件
+     * @return 是否存在
+     */
+    public static <T> boolean exists(QueryCondition<T> condition) {
+        return repositoryOf(condition).exists(condition);
+    }
+
+    /**
+     * 估算满足条件的记录数，见{@link TypedDrRepository#estimatedCount(QueryCondition)}
+     *
+     * @param condition 查询条件
+     * @return 估算的记录数
+     */
+    public static <T> long estimatedCount(QueryCondition<T> condition) {
+        return repositoryOf(condition).estimatedCount(condition);
     }
 }
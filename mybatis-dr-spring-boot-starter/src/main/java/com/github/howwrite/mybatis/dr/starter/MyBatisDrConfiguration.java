@@ -1,6 +1,9 @@
 package com.github.howwrite.mybatis.dr.starter;
 
+import com.github.howwrite.plugin.EntityResultSetInterceptor;
 import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,6 +15,14 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 @ComponentScan
 @MapperScan("com.github.howwrite.mapper")
+@EnableConfigurationProperties(MyBatisDrProperties.class)
 public class MyBatisDrConfiguration {
 
+    /**
+     * 查询结果直接映射为实体，mybatis-spring-boot会自动注册容器中的拦截器
+     */
+    @Bean
+    public EntityResultSetInterceptor entityResultSetInterceptor() {
+        return new EntityResultSetInterceptor();
+    }
 } 
\ No newline at end of file
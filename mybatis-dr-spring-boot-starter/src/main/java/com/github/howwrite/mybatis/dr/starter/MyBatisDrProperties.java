@@ -0,0 +1,113 @@
+package com.github.howwrite.mybatis.dr.starter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * MyBatis动态仓库配置，前缀为mybatis-dr
+ *
+ * @author mybatis-dr
+ */
+@ConfigurationProperties(prefix = MyBatisDrProperties.PREFIX)
+public class MyBatisDrProperties {
+
+    public static final String PREFIX = "mybatis-dr";
+
+    /**
+     * batchInsert、batchInsertOrUpdate的执行方式
+     */
+    private BatchMode batchMode = BatchMode.MULTI_VALUES;
+
+    /**
+     * 每条多值INSERT或每次executeBatch的最多行数
+     */
+    private int batchChunkSize = 1000;
+
+    /**
+     * MULTI_VALUES模式下每条多值INSERT的最大估算字节数，需要小于数据库的max_allowed_packet
+     */
+    private long batchMaxBytes = 4 * 1024 * 1024;
+
+    /**
+     * findPage获取总数的方式，默认按数据库是否支持窗口函数选择
+     */
+    private PageCountMode pageCountMode = PageCountMode.AUTO;
+
+    /**
+     * 数据库是否支持MySQL的JSON_EXTRACT、JSON_UNQUOTE、JSON_SET，为null时按数据库类型和版本判断（MySQL 5.7+、MariaDB 10.2+）。
+     * 不支持时feature中字段的条件和patchUpdate抛出异常，selectKey退化为查询整个feature列
+     */
+    private Boolean jsonFunctions;
+
+    public BatchMode getBatchMode() {
+        return batchMode;
+    }
+
+    public void setBatchMode(BatchMode batchMode) {
+        this.batchMode = batchMode;
+    }
+
+    public int getBatchChunkSize() {
+        return batchChunkSize;
+    }
+
+    public void setBatchChunkSize(int batchChunkSize) {
+        this.batchChunkSize = batchChunkSize;
+    }
+
+    public long getBatchMaxBytes() {
+        return batchMaxBytes;
+    }
+
+    public void setBatchMaxBytes(long batchMaxBytes) {
+        this.batchMaxBytes = batchMaxBytes;
+    }
+
+    public PageCountMode getPageCountMode() {
+        return pageCountMode;
+    }
+
+    public void setPageCountMode(PageCountMode pageCountMode) {
+        this.pageCountMode = pageCountMode;
+    }
+
+    public Boolean getJsonFunctions() {
+        return jsonFunctions;
+    }
+
+    public void setJsonFunctions(Boolean jsonFunctions) {
+        this.jsonFunctions = jsonFunctions;
+    }
+
+    /**
+     * 批量写入方式
+     */
+    public enum BatchMode {
+        /**
+         * INSERT ... VALUES (...), (...)多值语句，按batchChunkSize、batchMaxBytes和占位符上限自动分批
+         */
+        MULTI_VALUES,
+        /**
+         * ExecutorType.BATCH执行单行语句，按batchChunkSize分批addBatch/executeBatch，
+         * MySQL需要在连接上开启rewriteBatchedStatements
+         */
+        JDBC_BATCH
+    }
+
+    /**
+     * 分页总数的获取方式
+     */
+    public enum PageCountMode {
+        /**
+         * 第一次使用时读取数据库类型和版本，支持窗口函数时使用WINDOW，否则使用SEPARATE（MySQL 5.7、MariaDB 10.2以下）
+         */
+        AUTO,
+        /**
+         * 查询中追加COUNT(*) OVER()，一条语句返回当前页和总数，需要MySQL 8.0或MariaDB 10.2及以上
+         */
+        WINDOW,
+        /**
+         * 在同一个SqlSession中先查询当前页再执行COUNT，第一页不满一页时不再COUNT，适用于不支持窗口函数的数据库
+         */
+        SEPARATE
+    }
+}
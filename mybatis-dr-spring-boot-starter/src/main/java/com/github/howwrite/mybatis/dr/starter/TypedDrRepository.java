@@ -0,0 +1,718 @@
+package com.github.howwrite.mybatis.dr.starter;
+
+import com.github.howwrite.constant.FeatureEncoding;
+import com.github.howwrite.constant.MybatisDrContent;
+import com.github.howwrite.mapper.DynamicSqlMapper;
+import com.github.howwrite.model.FieldInfo;
+import com.github.howwrite.query.Page;
+import com.github.howwrite.query.QueryCondition;
+import com.github.howwrite.sql.DrBatchSplitter;
+import com.github.howwrite.sql.DrStatementType;
+import com.github.howwrite.util.EntityHelper;
+import com.github.howwrite.util.TableInfo;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.MyBatisExceptionTranslator;
+import org.mybatis.spring.SqlSessionUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 单个实体的仓库，表信息、Mapper和配置在创建时确定，每次调用不再查找。
+ * 注解处理器为每个{@link com.github.howwrite.annotation.DrTable}实体生成一个子类XxxDrRepository作为Spring Bean，
+ * {@link DrRepository}的静态方法也委托给按实体缓存的实例
+ *
+ * @author mybatis-dr
+ */
+public class TypedDrRepository<T> {
+
+    /**
+     * 流式查询默认的JDBC fetchSize
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private final TableInfo<T> tableInfo;
+
+    private final DynamicSqlMapper mapper;
+
+    private final SqlSessionFactory sqlSessionFactory;
+
+    private final MyBatisDrProperties properties;
+
+    /**
+     * 按id缓存的实体，同一实体类的所有仓库实例共享，没有开启时为null
+     */
+    private final DrEntityCache<T> entityCache;
+
+    /**
+     * 按条件缓存的查询结果，同一实体类的所有仓库实例共享，没有开启时为null
+     */
+    private final DrQueryCache<T> queryCache;
+
+    /**
+     * 数据库方言，第一次使用时读取
+     */
+    private volatile DrDialect dialect;
+
+    public TypedDrRepository(Class<T> entityClass, DynamicSqlMapper mapper, SqlSessionFactory sqlSessionFactory, MyBatisDrProperties properties) {
+        this.tableInfo = EntityHelper.getTableInfo(entityClass);
+        this.mapper = mapper;
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.properties = properties;
+        this.entityCache = DrEntityCache.of(entityClass);
+        this.queryCache = DrQueryCache.of(entityClass);
+    }
+
+    public TableInfo<T> getTableInfo() {
+        return tableInfo;
+    }
+
+    /**
+     * @return 按id缓存的实体，没有开启时为null
+     */
+    public DrEntityCache<T> getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * @return 按条件缓存的查询结果，没有开启时为null
+     */
+    public DrQueryCache<T> getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * @return 第一次使用时从数据源读取的数据库方言
+     */
+    public DrDialect dialect() {
+        DrDialect current = dialect;
+        if (current == null) {
+            current = DrDialect.detect(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource());
+            dialect = current;
+        }
+        return current;
+    }
+
+    /**
+     * @return 是否由这组Bean创建，容器刷新或存在多个容器时Bean会变化
+     */
+    boolean isBackedBy(DynamicSqlMapper mapper, SqlSessionFactory sqlSessionFactory, MyBatisDrProperties properties) {
+        return this.mapper == mapper && this.sqlSessionFactory == sqlSessionFactory && this.properties == properties;
+    }
+
+    public int insert(T entity) {
+        Map<String, Object> params = newParams();
+        params.put("entity", EntityHelper.parseEntity(entity, tableInfo, true));
+        int insertResult = mapper.insert(params);
+        writeAutoGenId(entity, params);
+        invalidateQueryCache();
+        return insertResult;
+    }
+
+    public int insertOrUpdate(T entity) {
+        Map<String, Object> params = newParams();
+        params.put("entity", EntityHelper.parseEntity(entity, tableInfo, true));
+        params.put("whenDuplicateUpdateFields", tableInfo.getWhenDuplicateUpdateFields());
+        int insertResult = mapper.insertOrUpdate(params);
+        writeAutoGenId(entity, params);
+        // 冲突的可能是任意唯一索引，无法确定更新了哪一行
+        invalidateCache(null);
+        return insertResult;
+    }
+
+    public int batchInsert(List<? extends T> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return 0;
+        }
+        if (properties.getBatchMode() == MyBatisDrProperties.BatchMode.JDBC_BATCH) {
+            try {
+                return jdbcBatchInsert(entities, false);
+            } finally {
+                invalidateQueryCache();
+            }
+        }
+        Map<String, Object> params = newParams();
+        List<Map<String, Object>> entitiesParam = EntityHelper.parseEntities(entities, tableInfo, true);
+        int insertResult = 0;
+        try {
+            for (List<Map<String, Object>> chunk : splitBatch(entitiesParam)) {
+                insertResult += mapper.batchInsert(params, chunk);
+            }
+        } finally {
+            invalidateQueryCache();
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            writeAutoGenId(entities.get(i), entitiesParam.get(i));
+        }
+        return insertResult;
+    }
+
+    public int batchInsertOrUpdate(List<? extends T> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return 0;
+        }
+        if (properties.getBatchMode() == MyBatisDrProperties.BatchMode.JDBC_BATCH) {
+            try {
+                return jdbcBatchInsert(entities, true);
+            } finally {
+                invalidateCache(null);
+            }
+        }
+        Map<String, Object> params = newParams();
+        params.put("whenDuplicateUpdateFields", tableInfo.getWhenDuplicateUpdateFields());
+        List<Map<String, Object>> entitiesParam = EntityHelper.parseEntities(entities, tableInfo, true);
+        int result = 0;
+        try {
+            for (List<Map<String, Object>> chunk : splitBatch(entitiesParam)) {
+                result += mapper.batchInsertOrUpdate(params, chunk);
+            }
+        } finally {
+            invalidateCache(null);
+        }
+        return result;
+    }
+
+    public int update(T entity, QueryCondition<T> condition) {
+        Map<String, Object> params = newConditionParams(condition);
+        params.put("entity", EntityHelper.parseEntity(entity, tableInfo, false));
+        int result = mapper.update(params);
+        invalidateCache(condition);
+        return result;
+    }
+
+    /**
+     * 更新记录，feature列不整体覆盖，只通过JSON_SET写入实体中非null的JSON字段，其他key保持不变。
+     * 要求feature列为未压缩的JSON文本
+     *
+     * @param entity    实体，null字段不更新
+     * @param condition 条件
+     * @return 影响的行数
+     */
+    public int patchUpdate(T entity, QueryCondition<T> condition) {
+        if (tableInfo.getFeatureEncoding() != FeatureEncoding.JSON || tableInfo.getFeatureCompressThreshold() > 0) {
+            throw new UnsupportedOperationException("patchUpdate requires an uncompressed JSON feature column: " + tableInfo.getTableName());
+        }
+        if (!jsonFunctions()) {
+            throw new UnsupportedOperationException("patchUpdate requires MySQL JSON functions, database: " + dialect().getProductName());
+        }
+        Map<String, Object> params = newConditionParams(condition);
+        params.put("entity", EntityHelper.parseColumns(entity, tableInfo, false));
+        params.put("featureColumnName", tableInfo.getFeatureColumnName());
+        params.put("featurePatch", EntityHelper.parseFeaturePatch(entity, tableInfo));
+        int result = mapper.patchUpdate(params);
+        invalidateCache(condition);
+        return result;
+    }
+
+    public int delete(QueryCondition<T> condition) {
+        Map<String, Object> params = newConditionParams(condition);
+        int result = Boolean.TRUE.equals(tableInfo.getLogicDelete()) ? mapper.logicDelete(params) : mapper.delete(params);
+        invalidateCache(condition);
+        return result;
+    }
+
+    public List<T> findByCondition(QueryCondition<T> condition) {
+        List<Object> ids = cacheableIds(condition);
+        if (ids != null) {
+            return findByIds(ids, condition);
+        }
+        if (queryCache == null || !queryCache.readable()) {
+            return query(condition);
+        }
+        long version = queryCache.version();
+        Map<String, Object> params = newQueryParams(condition);
+        DrQueryCache.Key key = queryCache.keyOf(DrStatementType.SELECT, params);
+        List<T> records = key == null ? null : queryCache.getRecords(key);
+        if (records != null) {
+            return records;
+        }
+        records = query(params);
+        if (key != null) {
+            queryCache.putRecords(key, records, version);
+        }
+        return records;
+    }
+
+    public Optional<T> findOne(QueryCondition<T> condition) {
+        condition.setLimit(1);
+        return findByCondition(condition).stream().findFirst();
+    }
+
+    /**
+     * 按页码分页查询，同时返回总数。数据库支持窗口函数时通过COUNT(*) OVER()在一条语句中取得总数，
+     * 不支持或{@link MyBatisDrProperties.PageCountMode#SEPARATE}时在同一个SqlSession中依次查询当前页和总数
+     *
+     * @param condition 查询条件，需要通过setPageInfo设置页码
+     * @return 当前页和总数
+     */
+    @SuppressWarnings("unchecked")
+    public Page<T> findPage(QueryCondition<T> condition) {
+        Integer limit = condition.getLimit();
+        if (limit == null) {
+            throw new IllegalArgumentException("findPage requires setPageInfo");
+        }
+        long offset = condition.getOffset() == null ? 0 : condition.getOffset();
+        Map<String, Object> params = newQueryParams(condition);
+        List<T> records;
+        long total;
+        if (pageCountMode() == MyBatisDrProperties.PageCountMode.WINDOW) {
+            long[] totalHolder = {-1};
+            params.put(MybatisDrContent.TOTAL_HOLDER_PARAM_NAME, totalHolder);
+            records = (List<T>) mapper.findEntityPageByCondition(params);
+            // 超出最后一页时没有行可以携带总数
+            total = totalHolder[0] >= 0 ? totalHolder[0] : offset == 0 ? 0 : count(condition);
+        } else {
+            SqlSession sqlSession = SqlSessionUtils.getSqlSession(sqlSessionFactory);
+            try {
+                DynamicSqlMapper sessionMapper = sqlSession.getMapper(DynamicSqlMapper.class);
+                records = (List<T>) sessionMapper.findEntityByCondition(params);
+                if (records.size() < limit && (!records.isEmpty() || offset == 0)) {
+                    // 不满一页时总数就是已经查到的行数
+                    total = offset + records.size();
+                } else {
+                    total = sessionMapper.count(newCountParams(condition));
+                }
+            } catch (PersistenceException e) {
+                throw translate(e);
+            } finally {
+                SqlSessionUtils.closeSqlSession(sqlSession, sqlSessionFactory);
+            }
+        }
+        return new Page<>(records, total, offset + records.size() < total);
+    }
+
+    /**
+     * 游标分页查询，代价与翻页深度无关。排序字段不以id结尾时自动追加id排序保证顺序唯一，
+     * 排序字段必须是非NULL的普通列，指定查询列时需要包含排序字段，
+     * 下一页把返回的{@link Page#getNextCursor()}传给{@link QueryCondition#seekAfter(Object...)}后再次调用
+     *
+     * @param condition 查询条件，不能设置offset，调用方的条件不会被修改
+     * @param pageSize  每页的记录数
+     * @return 当前页，最多pageSize条
+     */
+    public Page<T> seek(QueryCondition<T> condition, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        }
+        if (condition.getOffset() != null) {
+            throw new IllegalArgumentException("Seek pagination does not support offset");
+        }
+        // 在副本上追加id排序和limit，调用方的条件可以继续用于count或下一次seek
+        QueryCondition<T> seekCondition = newCondition();
+        seekCondition.getConditions().addAll(condition.getConditions());
+        seekCondition.getOrders().addAll(condition.getOrders());
+        seekCondition.selectKey(condition.getSelectKeys());
+        seekCondition.seekAfter(condition.getSeekValues());
+        List<QueryCondition.Order> orders = seekCondition.getOrders();
+        String idColumnName = tableInfo.getIdColumnName();
+        if (orders.isEmpty()) {
+            seekCondition.asc(idColumnName);
+        } else if (!orders.getLast().getField().equals(idColumnName)) {
+            seekCondition.addOrder(idColumnName, orders.getLast().getOrderMode());
+        }
+        checkSeekKeys(seekCondition);
+        // 多查一行判断是否还有下一页
+        seekCondition.setLimit(pageSize + 1);
+        List<T> records = query(seekCondition);
+        if (records.size() <= pageSize) {
+            return new Page<>(records, null);
+        }
+        records = new ArrayList<>(records.subList(0, pageSize));
+        T last = records.getLast();
+        Object[] nextCursor = new Object[orders.size()];
+        for (int i = 0; i < nextCursor.length; i++) {
+            nextCursor[i] = EntityHelper.columnValue(last, tableInfo, orders.get(i).getField());
+            if (nextCursor[i] == null) {
+                // 与NULL比较的行值条件不匹配任何行，继续翻页会跳过或重复数据
+                throw new IllegalStateException("Seek order column is null in the last row: " + orders.get(i).getField());
+            }
+        }
+        return new Page<>(records, nextCursor);
+    }
+
+    /**
+     * 游标取自上一页最后一行，排序字段必须是表中的普通列，指定了查询列时必须被查询，游标值不能为null
+     *
+     * @param condition 补全id排序后的条件
+     */
+    private void checkSeekKeys(QueryCondition<T> condition) {
+        QueryCondition.SelectKey[] selectKeys = condition.getSelectKeys();
+        for (QueryCondition.Order order : condition.getOrders()) {
+            String field = order.getField();
+            if (!tableInfo.getFieldMap().containsKey(field)) {
+                throw new IllegalArgumentException("Seek order field is not a column of " + tableInfo.getTableName() + ": " + field);
+            }
+            if (selectKeys != null && selectKeys.length > 0 && Arrays.stream(selectKeys)
+                    .noneMatch(key -> key.getFeatureKey() == null && key.getColumnName().equals(field))) {
+                throw new IllegalArgumentException("Seek order field must be selected: " + field);
+            }
+        }
+        Object[] seekValues = condition.getSeekValues();
+        if (seekValues != null && Arrays.asList(seekValues).contains(null)) {
+            throw new IllegalArgumentException("Seek values must not be null");
+        }
+    }
+
+    /**
+     * 流式查询，逐行映射实体并交给调用方，调用方需要关闭返回的Stream（try-with-resources），
+     * 在事务中时复用事务的SqlSession，否则占用一个SqlSession直到Stream关闭
+     *
+     * @param condition 查询条件
+     * @return 实体流
+     */
+    public Stream<T> stream(QueryCondition<T> condition) {
+        return stream(condition, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * 流式查询
+     *
+     * @param condition 查询条件
+     * @param fetchSize JDBC fetchSize
+     * @return 实体流
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<T> stream(QueryCondition<T> condition, int fetchSize) {
+        Map<String, Object> params = newQueryParams(condition);
+        params.put(MybatisDrContent.FETCH_SIZE_PARAM_NAME, fetchSize);
+
+        SqlSession sqlSession = SqlSessionUtils.getSqlSession(sqlSessionFactory);
+        Cursor<T> cursor;
+        try {
+            cursor = (Cursor<T>) sqlSession.getMapper(DynamicSqlMapper.class).cursorEntityByCondition(params);
+        } catch (RuntimeException e) {
+            SqlSessionUtils.closeSqlSession(sqlSession, sqlSessionFactory);
+            throw e;
+        }
+        return StreamSupport.stream(cursor.spliterator(), false)
+                .onClose(() -> {
+                    try {
+                        cursor.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        SqlSessionUtils.closeSqlSession(sqlSession, sqlSessionFactory);
+                    }
+                });
+    }
+
+    /**
+     * 流式遍历，查询结束后自动释放游标
+     *
+     * @param condition 查询条件
+     * @param consumer  实体消费者
+     */
+    public void forEach(QueryCondition<T> condition, Consumer<T> consumer) {
+        try (Stream<T> stream = stream(condition)) {
+            stream.forEach(consumer);
+        }
+    }
+
+    public long count(QueryCondition<T> condition) {
+        Map<String, Object> params = newCountParams(condition);
+        if (queryCache == null || !queryCache.readable()) {
+            return mapper.count(params);
+        }
+        long version = queryCache.version();
+        DrQueryCache.Key key = queryCache.keyOf(DrStatementType.COUNT, params);
+        Long count = key == null ? null : queryCache.getCount(key);
+        if (count != null) {
+            return count;
+        }
+        count = mapper.count(params);
+        if (key != null) {
+            queryCache.putCount(key, count, version);
+        }
+        return count;
+    }
+
+    /**
+     * 是否存在满足条件的记录，找到第一行即返回，比count代价低
+     *
+     * @param condition 查询条件
+     * @return 是否存在
+     */
+    public boolean exists(QueryCondition<T> condition) {
+        return mapper.exists(newCountParams(condition)) != null;
+    }
+
+    /**
+     * 估算满足条件的记录数，取MySQL EXPLAIN中的rows * filtered，不扫描数据，适用于大表上对精度不敏感的统计。
+     * EXPLAIN结果中没有rows时（非MySQL数据库）回退到精确的count
+     *
+     * @param condition 查询条件
+     * @return 估算的记录数
+     */
+    public long estimatedCount(QueryCondition<T> condition) {
+        List<Map<String, Object>> plans = mapper.explainCount(newCountParams(condition));
+        if (plans.size() == 1) {
+            Map<String, Object> plan = plans.getFirst();
+            Object rows = planValue(plan, "rows");
+            if (rows instanceof Number rowCount) {
+                Object filtered = planValue(plan, "filtered");
+                double ratio = filtered instanceof Number percent ? percent.doubleValue() / 100 : 1;
+                return Math.round(rowCount.doubleValue() * ratio);
+            }
+        }
+        return count(condition);
+    }
+
+    private static Object planValue(Map<String, Object> plan, String column) {
+        for (Map.Entry<String, Object> entry : plan.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(column)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private List<T> query(QueryCondition<T> condition) {
+        return query(newQueryParams(condition));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> query(Map<String, Object> params) {
+        return (List<T>) mapper.findEntityByCondition(params);
+    }
+
+    /**
+     * @return 可以走实体缓存的id，不能使用缓存时返回null
+     */
+    private List<Object> cacheableIds(QueryCondition<T> condition) {
+        if (entityCache == null || !entityCache.readable()) {
+            return null;
+        }
+        return entityCache.lookupIds(condition);
+    }
+
+    /**
+     * 先从缓存中读取，只查询未命中的id，结果按传入id的顺序返回
+     */
+    private List<T> findByIds(List<Object> ids, QueryCondition<T> condition) {
+        long version = entityCache.version();
+        Map<Object, T> found = new HashMap<>();
+        // key为统一类型后的id，保持传入顺序去重
+        Set<Object> misses = new LinkedHashSet<>();
+        for (Object id : ids) {
+            Object key = entityCache.keyOf(id);
+            if (found.containsKey(key) || misses.contains(key)) {
+                continue;
+            }
+            T cached = entityCache.get(id);
+            if (cached != null) {
+                found.put(key, cached);
+            } else {
+                misses.add(key);
+            }
+        }
+        if (!misses.isEmpty()) {
+            QueryCondition<T> missCondition = condition;
+            if (misses.size() < ids.size()) {
+                missCondition = newCondition();
+                missCondition.in(tableInfo.getIdColumnName(), misses);
+            }
+            for (T entity : query(missCondition)) {
+                entityCache.put(entity, version);
+                found.put(entityCache.keyOf(tableInfo.getIdField().getValue(entity)), entity);
+            }
+        }
+        List<T> result = new ArrayList<>(found.size());
+        for (Object id : ids) {
+            T entity = found.remove(entityCache.keyOf(id));
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    private QueryCondition<T> newCondition() {
+        return new QueryCondition<>() {
+            @Override
+            public Class<T> currentEntityClass() {
+                return tableInfo.getEntityClass();
+            }
+        };
+    }
+
+    private void invalidateCache(QueryCondition<T> condition) {
+        // 同一张表可能被其他开启了缓存的实体类映射，即使当前实体类没有开启也需要失效
+        DrEntityCache.invalidateTable(tableInfo.getTableName(), condition);
+        invalidateQueryCache();
+    }
+
+    /**
+     * 任意写入都可能改变查询结果，插入也需要失效
+     */
+    private void invalidateQueryCache() {
+        DrQueryCache.invalidateTable(tableInfo.getTableName());
+    }
+
+    private Map<String, Object> newParams() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("tableName", tableInfo.getTableName());
+        return params;
+    }
+
+    /**
+     * 带条件语句的参数，feature中的key作为条件时要求feature列为未压缩的JSON文本，
+     * JSONB或压缩后的内容无法被数据库JSON函数读取，条件不会匹配任何行
+     */
+    private Map<String, Object> newConditionParams(QueryCondition<T> condition) {
+        if (condition != null) {
+            for (QueryCondition.Condition item : condition.getConditions()) {
+                if (item.getFeatureKey() == null) {
+                    continue;
+                }
+                if (tableInfo.getFeatureEncoding() != FeatureEncoding.JSON || tableInfo.getFeatureCompressThreshold() > 0) {
+                    throw new UnsupportedOperationException("feature condition on '" + item.getFeatureKey()
+                            + "' requires an uncompressed JSON feature column: " + tableInfo.getTableName());
+                }
+                if (!jsonFunctions()) {
+                    throw new UnsupportedOperationException("feature condition on '" + item.getFeatureKey()
+                            + "' requires MySQL JSON functions, database: " + dialect().getProductName());
+                }
+            }
+        }
+        Map<String, Object> params = newParams();
+        params.put("condition", condition);
+        params.put("logicDelete", tableInfo.getLogicDelete());
+        return params;
+    }
+
+    private Map<String, Object> newCountParams(QueryCondition<T> condition) {
+        return newConditionParams(condition);
+    }
+
+    private Map<String, Object> newQueryParams(QueryCondition<T> condition) {
+        Map<String, Object> params = newConditionParams(condition);
+        params.put(MybatisDrContent.TABLE_INFO_PARAM_NAME, tableInfo);
+        if (condition != null && condition.getSelectKeys() != null) {
+            params.put(MybatisDrContent.JSON_FUNCTIONS_PARAM_NAME, jsonFunctions());
+        }
+        return params;
+    }
+
+    /**
+     * @return 数据库是否支持MySQL的JSON函数，优先使用配置
+     */
+    private boolean jsonFunctions() {
+        Boolean configured = properties.getJsonFunctions();
+        return configured != null ? configured : dialect().supportsJsonFunctions();
+    }
+
+    /**
+     * @return findPage实际使用的总数获取方式，AUTO时按数据库是否支持窗口函数选择
+     */
+    private MyBatisDrProperties.PageCountMode pageCountMode() {
+        MyBatisDrProperties.PageCountMode configured = properties.getPageCountMode();
+        if (configured != MyBatisDrProperties.PageCountMode.AUTO) {
+            return configured;
+        }
+        return dialect().supportsWindowFunctions() ? MyBatisDrProperties.PageCountMode.WINDOW : MyBatisDrProperties.PageCountMode.SEPARATE;
+    }
+
+    /**
+     * 多值INSERT按行数、估算字节数、占位符上限和列集合分批，各批依次在调用方的事务中执行
+     */
+    private List<List<Map<String, Object>>> splitBatch(List<Map<String, Object>> entitiesParam) {
+        return DrBatchSplitter.split(entitiesParam, properties.getBatchChunkSize(), properties.getBatchMaxBytes());
+    }
+
+    /**
+     * 使用ExecutorType.BATCH逐行执行单行insert，每batchChunkSize行executeBatch一次。
+     * 直接从SqlSessionFactory打开会话，事务中通过SpringManagedTransaction复用事务连接，不影响事务中已有的SqlSession
+     *
+     * @param entities       实体列表
+     * @param insertOrUpdate 是否是insert or update，与多值语句一致，此时不回填id
+     * @return 影响的行数
+     */
+    private int jdbcBatchInsert(List<? extends T> entities, boolean insertOrUpdate) {
+        int chunkSize = Math.max(properties.getBatchChunkSize(), 1);
+        int result = 0;
+        try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+            DynamicSqlMapper batchMapper = sqlSession.getMapper(DynamicSqlMapper.class);
+            List<Map<String, Object>> chunkParams = new ArrayList<>(Math.min(chunkSize, entities.size()));
+            for (int i = 0; i < entities.size(); i++) {
+                Map<String, Object> params = newParams();
+                params.put("entity", EntityHelper.parseEntity(entities.get(i), tableInfo, true));
+                if (insertOrUpdate) {
+                    params.put("whenDuplicateUpdateFields", tableInfo.getWhenDuplicateUpdateFields());
+                    batchMapper.insertOrUpdate(params);
+                } else {
+                    batchMapper.insert(params);
+                }
+                chunkParams.add(params);
+
+                if (chunkParams.size() == chunkSize || i == entities.size() - 1) {
+                    result += sumUpdateCounts(sqlSession.flushStatements());
+                    if (!insertOrUpdate) {
+                        int chunkStart = i + 1 - chunkParams.size();
+                        for (int j = 0; j < chunkParams.size(); j++) {
+                            writeAutoGenId(entities.get(chunkStart + j), chunkParams.get(j));
+                        }
+                    }
+                    chunkParams.clear();
+                }
+            }
+            sqlSession.commit();
+        } catch (PersistenceException e) {
+            throw translate(e);
+        }
+        return result;
+    }
+
+    /**
+     * 直接使用SqlSession时不经过SqlSessionTemplate，需要自行把异常转换为Spring的DataAccessException
+     */
+    private RuntimeException translate(PersistenceException e) {
+        DataSource dataSource = sqlSessionFactory.getConfiguration().getEnvironment().getDataSource();
+        RuntimeException translated = new MyBatisExceptionTranslator(dataSource, true).translateExceptionIfPossible(e);
+        return translated != null ? translated : e;
+    }
+
+    private static int sumUpdateCounts(List<BatchResult> batchResults) {
+        int result = 0;
+        for (BatchResult batchResult : batchResults) {
+            for (int updateCount : batchResult.getUpdateCounts()) {
+                // rewriteBatchedStatements时驱动只返回SUCCESS_NO_INFO
+                result += updateCount == Statement.SUCCESS_NO_INFO ? 1 : Math.max(updateCount, 0);
+            }
+        }
+        return result;
+    }
+
+    private void writeAutoGenId(Object entity, Map<String, Object> params) {
+        FieldInfo idField = tableInfo.getIdField();
+        if (idField == null) {
+            return;
+        }
+        Object genId = params.get(MybatisDrContent.AUTO_GEN_ID_FIELD_NAME);
+        if (genId == null) {
+            return;
+        }
+        try {
+            EntityHelper.assignField(idField, entity, genId);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.howwrite.mybatis.dr.test;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+
+/**
+ * H2中模拟MySQL的JSON函数，在data.sql中注册为同名函数，只支持$."key"形式的路径
+ */
+public class H2JsonFunctions {
+
+    public static String jsonExtract(String json, String path) {
+        if (json == null || !json.startsWith("{")) {
+            return null;
+        }
+        String key = keyOf(path);
+        JSONObject object = JSON.parseObject(json);
+        return object.containsKey(key) ? JSON.toJSONString(object.get(key)) : null;
+    }
+
+    /**
+     * H2中CAST(? AS JSON)会把参数文本包装成JSON字符串，这里先解开一层再按JSON解析
+     */
+    public static String jsonSet(String json, String... pathAndValues) {
+        JSONObject object = JSON.parseObject(json);
+        for (int i = 0; i + 1 < pathAndValues.length; i += 2) {
+            String value = JSON.parseObject(pathAndValues[i + 1], String.class);
+            object.put(keyOf(pathAndValues[i]), JSON.parse(value));
+        }
+        return object.toJSONString();
+    }
+
+    private static String keyOf(String path) {
+        String key = path.substring(2);
+        if (key.startsWith("\"")) {
+            key = key.substring(1, key.length() - 1);
+        }
+        return key;
+    }
+
+    public static String jsonUnquote(String json) {
+        if (json != null && json.length() >= 2 && json.startsWith("\"") && json.endsWith("\"")) {
+            return JSON.parseObject(json, String.class);
+        }
+        return json;
+    }
+}
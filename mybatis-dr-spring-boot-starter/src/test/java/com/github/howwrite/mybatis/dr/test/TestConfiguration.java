@@ -1,14 +1,18 @@
 package com.github.howwrite.mybatis.dr.test;
 
 import com.github.howwrite.mybatis.dr.starter.MyBatisDrConfiguration;
+import com.github.howwrite.mybatis.dr.test.model.ConfigDrRepository;
+import com.github.howwrite.mybatis.dr.test.model.UserDrRepository;
 import com.github.howwrite.treasure.spring.BagSpringConfiguration;
 import org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration;
 import org.mybatis.spring.boot.autoconfigure.MybatisLanguageDriverAutoConfiguration;
 import org.springframework.boot.SpringBootConfiguration;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.context.annotation.Import;
 
 @SpringBootConfiguration
 @ImportAutoConfiguration({MybatisAutoConfiguration.class, MybatisLanguageDriverAutoConfiguration.class, BagSpringConfiguration.class, MyBatisDrConfiguration.class})
+@Import({UserDrRepository.class, ConfigDrRepository.class})
 public class TestConfiguration {
 
 }
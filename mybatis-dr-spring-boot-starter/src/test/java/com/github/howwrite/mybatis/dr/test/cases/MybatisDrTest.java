@@ -1,15 +1,53 @@
 package com.github.howwrite.mybatis.dr.test.cases;
 
+import com.alibaba.fastjson2.JSONB;
+import com.github.howwrite.constant.MybatisDrContent;
+import com.github.howwrite.mapper.DynamicSqlMapper;
+import com.github.howwrite.model.FieldInfo;
+import com.github.howwrite.mybatis.dr.starter.DrDialect;
+import com.github.howwrite.mybatis.dr.starter.DrQueryCache;
 import com.github.howwrite.mybatis.dr.starter.DrRepository;
+import com.github.howwrite.mybatis.dr.starter.MyBatisDrProperties;
+import com.github.howwrite.mybatis.dr.starter.TypedDrRepository;
 import com.github.howwrite.mybatis.dr.test.BaseTest;
+import com.github.howwrite.mybatis.dr.test.model.Config;
+import com.github.howwrite.mybatis.dr.test.model.ConfigDrRepository;
+import com.github.howwrite.mybatis.dr.test.model.ConfigQuery;
+import com.github.howwrite.mybatis.dr.test.model.Device;
+import com.github.howwrite.mybatis.dr.test.model.DeviceQuery;
 import com.github.howwrite.mybatis.dr.test.model.User;
+import com.github.howwrite.mybatis.dr.test.model.UserCodec;
+import com.github.howwrite.mybatis.dr.test.model.UserDrRepository;
 import com.github.howwrite.mybatis.dr.test.model.UserQuery;
+import com.github.howwrite.plugin.EntityResultSetInterceptor;
+import com.github.howwrite.query.Page;
+import com.github.howwrite.query.QueryCondition;
+import com.github.howwrite.sql.DrSqlCache;
+import com.github.howwrite.sql.DrSqlRenderer;
+import com.github.howwrite.sql.DrStatementType;
+import com.github.howwrite.treasure.spring.utils.SpringUtils;
+import com.github.howwrite.util.EntityHelper;
+import com.github.howwrite.util.FeatureCompressor;
+import com.github.howwrite.util.SegmentedLruCache;
+import com.github.howwrite.util.TableInfo;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
-
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -17,6 +55,9 @@ import java.util.stream.Stream;
 
 
 public class MybatisDrTest extends BaseTest {
+    @Autowired
+    private ApplicationContext applicationContext;
+
     @Test
     public void test_insert_and_findOne() {
         User entity = new User();
@@ -193,4 +234,628 @@ public class MybatisDrTest extends BaseTest {
         Assertions.assertEquals(5, count);
     }
 
+    @Test
+    public void test_exists_andCountAllRows() {
+        Assertions.assertFalse(DrRepository.exists(new UserQuery().eqName("exists_test")));
+        IntStream.range(0, 3).forEach(i -> {
+            User u = new User();
+            u.setName("exists_test");
+            DrRepository.insert(u);
+        });
+        Assertions.assertTrue(DrRepository.exists(new UserQuery().eqName("exists_test")));
+
+        // birthday为null，count仍然统计所有行
+        Assertions.assertEquals(3, DrRepository.count(new UserQuery().eqName("exists_test").selectKey(UserQuery.selectBirthday)));
+        // H2的EXPLAIN中没有rows，回退到精确的count
+        Assertions.assertEquals(3, DrRepository.estimatedCount(new UserQuery().eqName("exists_test")));
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("tableName", "user_test");
+        params.put("condition", new UserQuery().eqName("exists_test"));
+        Assertions.assertEquals("SELECT 1 FROM `user_test` WHERE `name` = ? LIMIT 1",
+                DrSqlRenderer.render(DrStatementType.EXISTS, params, null, new ArrayList<>()));
+        DrRepository.delete(new UserQuery().eqName("exists_test"));
+    }
+
+    @Test
+    public void test_generatedCodec_isUsed() {
+        Assertions.assertInstanceOf(UserCodec.class, EntityHelper.getTableInfo(User.class).getEntityCodec());
+
+        User user = new User();
+        user.setName("codec");
+        user.setAddress("Rome");
+        DrRepository.insert(user);
+
+        Optional<User> found = DrRepository.findOne(new UserQuery().eqId(user.getId()));
+        Assertions.assertTrue(found.isPresent());
+        Assertions.assertEquals("codec", found.get().getName());
+        Assertions.assertEquals("Rome", found.get().getAddress());
+        DrRepository.delete(new UserQuery().eqId(user.getId()));
+    }
+
+    @Test
+    public void test_findByCondition_mapsResultSetDirectly() {
+        User user = new User();
+        user.setName("direct");
+        user.setBirthday(LocalDate.of(2000, 1, 2));
+        user.setAddress("Naples");
+        DrRepository.insert(user);
+
+        List<User> users = DrRepository.findByCondition(new UserQuery().eqId(user.getId()));
+        Assertions.assertEquals(1, users.size());
+        User found = users.getFirst();
+        Assertions.assertEquals(user.getId(), found.getId());
+        Assertions.assertEquals(LocalDate.of(2000, 1, 2), found.getBirthday());
+        Assertions.assertEquals("Naples", found.getAddress());
+        Assertions.assertNotNull(found.getCreatedTime());
+        Assertions.assertNotSame(found, DrRepository.findByCondition(new UserQuery().eqId(user.getId())).getFirst());
+        DrRepository.delete(new UserQuery().eqId(user.getId()));
+
+        // 拦截器只由starter注册一次
+        List<Interceptor> interceptors = SpringUtils.getBean(SqlSessionFactory.class).getConfiguration().getInterceptors();
+        Assertions.assertEquals(1, interceptors.stream().filter(EntityResultSetInterceptor.class::isInstance).count());
+    }
+
+    @Test
+    public void test_stream_and_forEach() {
+        List<User> users = IntStream.range(0, 5).mapToObj(i -> {
+            User user = new User();
+            user.setName("stream_" + i);
+            user.setAddress("Street " + i);
+            return user;
+        }).collect(Collectors.toList());
+        DrRepository.batchInsert(users);
+
+        List<String> names = users.stream().map(User::getName).collect(Collectors.toList());
+        try (Stream<User> stream = DrRepository.stream(new UserQuery().inName(names).asc("id"), 2)) {
+            List<String> addresses = stream.map(User::getAddress).collect(Collectors.toList());
+            Assertions.assertEquals(List.of("Street 0", "Street 1", "Street 2", "Street 3", "Street 4"), addresses);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        DrRepository.forEach(new UserQuery().inName(names), user -> ids.add(user.getId()));
+        Assertions.assertEquals(5, ids.size());
+        DrRepository.delete(new UserQuery().inName(names));
+    }
+
+    @Test
+    public void test_findByCondition_selectsFeatureKeys() {
+        User user = new User();
+        user.setName("select_feature");
+        user.setAddress("Feature Street");
+        DrRepository.insert(user);
+
+        User withoutFeature = DrRepository.findOne(new UserQuery().eqName("select_feature").selectKey(UserQuery.selectId, UserQuery.selectName)).orElseThrow();
+        Assertions.assertEquals("select_feature", withoutFeature.getName());
+        Assertions.assertNull(withoutFeature.getAddress());
+
+        User withFeature = DrRepository.findOne(new UserQuery().eqName("select_feature").selectKey(UserQuery.selectName, UserQuery.selectAddress)).orElseThrow();
+        Assertions.assertNull(withFeature.getId());
+        Assertions.assertEquals("Feature Street", withFeature.getAddress());
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("tableName", "user_test");
+        params.put("condition", new UserQuery().selectKey(UserQuery.selectName, UserQuery.selectAddress));
+        params.put(MybatisDrContent.TABLE_INFO_PARAM_NAME, EntityHelper.getTableInfo(User.class));
+        params.put(MybatisDrContent.JSON_FUNCTIONS_PARAM_NAME, true);
+        String sql = DrSqlRenderer.render(DrStatementType.SELECT, params, null, new ArrayList<>());
+        Assertions.assertEquals("SELECT name,JSON_EXTRACT(`feature`, '$.\"address\"') AS `dr_feature__address` FROM `user_test`", sql);
+        DrRepository.delete(new UserQuery().eqName("select_feature"));
+    }
+
+    @Test
+    public void test_jsonFunctions_detectedByDialect() {
+        Assertions.assertTrue(new DrDialect("MySQL", "8.0.36", 8, 0).supportsJsonFunctions());
+        Assertions.assertFalse(new DrDialect("MySQL", "5.6.40", 5, 6).supportsJsonFunctions());
+        DrDialect mariaDb = new DrDialect("MySQL", "5.5.5-10.6.12-MariaDB", 5, 5);
+        Assertions.assertTrue(mariaDb.isMariaDb());
+        Assertions.assertTrue(mariaDb.supportsJsonFunctions());
+        DrDialect h2 = DrRepository.repository(User.class).dialect();
+        Assertions.assertEquals("H2", h2.getProductName());
+        Assertions.assertFalse(h2.supportsJsonFunctions());
+
+        User user = new User();
+        user.setName("no_json_functions");
+        user.setAddress("Plain Street");
+        DrRepository.insert(user);
+        MyBatisDrProperties properties = SpringUtils.getBean(MyBatisDrProperties.class);
+        try {
+            // 不配置时按数据库判断，H2不支持JSON函数
+            properties.setJsonFunctions(null);
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> DrRepository.count(new UserQuery().eqAddress("Plain Street")));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> DrRepository.patchUpdate(new User(), new UserQuery().eqId(user.getId())));
+            // selectKey退化为查询整个feature列
+            User found = DrRepository.findOne(new UserQuery().eqId(user.getId()).selectKey(UserQuery.selectId, UserQuery.selectAddress)).orElseThrow();
+            Assertions.assertEquals("Plain Street", found.getAddress());
+        } finally {
+            properties.setJsonFunctions(true);
+            DrRepository.delete(new UserQuery().eqName("no_json_functions"));
+        }
+    }
+
+    @Test
+    public void test_featureCondition_pushedDown() {
+        List<User> users = IntStream.range(0, 4).mapToObj(i -> {
+            User user = new User();
+            user.setName("feature_query_" + i);
+            user.setAddress(i % 2 == 0 ? "Rome " + i : "Paris " + i);
+            user.setLevel(i * 10);
+            return user;
+        }).collect(Collectors.toList());
+        DrRepository.batchInsert(users);
+        List<String> names = users.stream().map(User::getName).collect(Collectors.toList());
+
+        List<User> rome = DrRepository.findByCondition(new UserQuery().inName(names).likeRightAddress("Rome").asc("id"));
+        Assertions.assertEquals(List.of("feature_query_0", "feature_query_2"), rome.stream().map(User::getName).collect(Collectors.toList()));
+
+        Assertions.assertEquals(1, DrRepository.count(new UserQuery().inName(names).eqAddress("Paris 3")));
+        Assertions.assertEquals(2, DrRepository.count(new UserQuery().inName(names).geLevel(20)));
+        Assertions.assertEquals(2, DrRepository.count(new UserQuery().inName(names).inAddress(List.of("Rome 0", "Paris 1"))));
+        DrRepository.delete(new UserQuery().inName(names));
+    }
+
+    @Test
+    public void test_featureCondition_rejectedOnJsonbColumn() {
+        // JSONB编码的feature列无法被JSON_EXTRACT读取，条件会静默匹配不到任何行
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> DrRepository.count(new DeviceQuery().eqColor("blue")));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> DrRepository.findByCondition(new DeviceQuery().eqColor("blue")));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> DrRepository.delete(new DeviceQuery().eqColor("blue")));
+    }
+
+    @Test
+    public void test_patchUpdate_keepsOtherFeatureKeys() {
+        User user = new User();
+        user.setName("patch");
+        user.setAddress("Old Street");
+        user.setLevel(1);
+        DrRepository.insert(user);
+
+        User patch = new User();
+        patch.setLevel(5);
+        Assertions.assertEquals(1, DrRepository.patchUpdate(patch, new UserQuery().eqId(user.getId())));
+
+        User found = DrRepository.findOne(new UserQuery().eqId(user.getId())).orElseThrow();
+        Assertions.assertEquals("patch", found.getName());
+        Assertions.assertEquals("Old Street", found.getAddress());
+        Assertions.assertEquals(5, found.getLevel());
+        DrRepository.delete(new UserQuery().eqId(user.getId()));
+    }
+
+    @Test
+    public void test_findPage_returnsTotal() {
+        DrRepository.batchInsert(IntStream.range(0, 5).mapToObj(i -> {
+            User user = new User();
+            user.setName("find_page");
+            return user;
+        }).toList());
+
+        MyBatisDrProperties properties = SpringUtils.getBean(MyBatisDrProperties.class);
+        try {
+            for (MyBatisDrProperties.PageCountMode mode : MyBatisDrProperties.PageCountMode.values()) {
+                properties.setPageCountMode(mode);
+                Page<User> first = DrRepository.findPage((UserQuery) new UserQuery().eqName("find_page").ascId().setPageInfo(1, 2));
+                Assertions.assertEquals(2, first.getRecords().size());
+                Assertions.assertEquals(5, first.getTotal());
+                Assertions.assertTrue(first.hasNext());
+
+                Page<User> last = DrRepository.findPage((UserQuery) new UserQuery().eqName("find_page").ascId().setPageInfo(3, 2));
+                Assertions.assertEquals(1, last.getRecords().size());
+                Assertions.assertEquals(5, last.getTotal());
+                Assertions.assertFalse(last.hasNext());
+
+                Page<User> beyond = DrRepository.findPage((UserQuery) new UserQuery().eqName("find_page").setPageInfo(4, 2));
+                Assertions.assertTrue(beyond.getRecords().isEmpty());
+                Assertions.assertEquals(5, beyond.getTotal());
+
+                Page<User> small = DrRepository.findPage((UserQuery) new UserQuery().eqName("find_page").setPageInfo(1, 10));
+                Assertions.assertEquals(5, small.getTotal());
+            }
+        } finally {
+            properties.setPageCountMode(MyBatisDrProperties.PageCountMode.AUTO);
+            DrRepository.delete(new UserQuery().eqName("find_page"));
+        }
+    }
+
+    @Test
+    public void test_findPage_fallsBackWithoutWindowFunctions() {
+        Assertions.assertTrue(new DrDialect("MySQL", "8.0.36", 8, 0).supportsWindowFunctions());
+        Assertions.assertFalse(new DrDialect("MySQL", "5.7.44", 5, 7).supportsWindowFunctions());
+        Assertions.assertFalse(new DrDialect("MySQL", "5.5.5-10.1.48-MariaDB", 5, 5).supportsWindowFunctions());
+        Assertions.assertTrue(new DrDialect("MariaDB", "10.2.44-MariaDB", 10, 2).supportsWindowFunctions());
+        Assertions.assertTrue(DrRepository.repository(User.class).dialect().supportsWindowFunctions());
+
+        List<User> users = IntStream.range(0, 3).mapToObj(i -> {
+            User user = new User();
+            user.setName("page_fallback");
+            return user;
+        }).toList();
+        DrRepository.batchInsert(users);
+        // MySQL 5.7不支持COUNT(*) OVER()，AUTO时不能走窗口函数的语句
+        DynamicSqlMapper windowUnsupported = (DynamicSqlMapper) Proxy.newProxyInstance(DynamicSqlMapper.class.getClassLoader(),
+                new Class<?>[]{DynamicSqlMapper.class}, (proxy, method, args) -> {
+                    throw new AssertionError("Unexpected statement: " + method.getName());
+                });
+        TypedDrRepository<User> repository = new TypedDrRepository<>(User.class, windowUnsupported,
+                SpringUtils.getBean(SqlSessionFactory.class), SpringUtils.getBean(MyBatisDrProperties.class)) {
+            @Override
+            public DrDialect dialect() {
+                return new DrDialect("MySQL", "5.7.44", 5, 7);
+            }
+        };
+        Page<User> page = repository.findPage((UserQuery) new UserQuery().eqName("page_fallback").setPageInfo(1, 2));
+        Assertions.assertEquals(2, page.getRecords().size());
+        Assertions.assertEquals(3, page.getTotal());
+        DrRepository.delete(new UserQuery().eqName("page_fallback"));
+    }
+
+    @Test
+    public void test_seek_pagesByKeyset() {
+        List<User> users = IntStream.range(0, 5).mapToObj(i -> {
+            User user = new User();
+            user.setName("seek_page");
+            return user;
+        }).toList();
+        DrRepository.batchInsert(users);
+        List<Long> ids = users.stream().map(User::getId).toList();
+
+        List<Long> seen = new ArrayList<>();
+        Long lastId = null;
+        Page<User> page;
+        do {
+            page = DrRepository.seek(new UserQuery().eqName("seek_page").seekAscId(lastId), 2);
+            page.getRecords().forEach(user -> seen.add(user.getId()));
+            lastId = page.hasNext() ? (Long) page.getNextCursor()[0] : null;
+        } while (page.hasNext());
+        Assertions.assertEquals(ids, seen);
+
+        Page<User> descPage = DrRepository.seek(new UserQuery().eqName("seek_page").seekDescName("seek_page", ids.get(2)), 10);
+        Assertions.assertEquals(List.of(ids.get(1), ids.get(0)), descPage.getRecords().stream().map(User::getId).toList());
+        Assertions.assertFalse(descPage.hasNext());
+
+        // seek不修改调用方的条件
+        UserQuery reused = (UserQuery) new UserQuery().eqName("seek_page").descName();
+        DrRepository.seek(reused, 2);
+        Assertions.assertEquals(1, reused.getOrders().size());
+        Assertions.assertNull(reused.getLimit());
+        Assertions.assertEquals(5, DrRepository.count(reused));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new UserQuery().seekDescName(null, ids.get(2)));
+
+        // 重复调用生成的seek方法替换排序
+        UserQuery repeated = new UserQuery().seekAscId(null);
+        repeated.seekDescName("seek_page", ids.get(2));
+        Assertions.assertEquals(List.of("name", "id"), repeated.getOrders().stream().map(QueryCondition.Order::getField).toList());
+        // 排序列必须是被查询的普通列，游标值和排序值不能为null
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> DrRepository.seek((UserQuery) new UserQuery().eqName("seek_page").seekAscId(null).selectKey(UserQuery.selectName), 2));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> DrRepository.seek((UserQuery) new UserQuery().eqName("seek_page").asc("unknown"), 2));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> DrRepository.seek((UserQuery) new UserQuery().eqName("seek_page").ascName().ascId().seekAfter(null, 1L), 2));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> DrRepository.seek((UserQuery) new UserQuery().eqName("seek_page").ascBirthday(), 2));
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("tableName", "user_test");
+        params.put("condition", new UserQuery().descName().ascId().seekAfter("seek_page", 1L));
+        String sql = DrSqlRenderer.render(DrStatementType.SELECT, params, null, new ArrayList<>());
+        Assertions.assertEquals("SELECT * FROM `user_test` WHERE ((`name` < ?) OR (`name` = ? AND `id` > ?)) ORDER BY `name` desc, `id` asc", sql);
+        DrRepository.delete(new UserQuery().eqName("seek_page"));
+    }
+
+    @Test
+    public void test_seek_primitiveSortField() {
+        List<Config> configs = IntStream.range(0, 4).mapToObj(i -> {
+            Config config = new Config();
+            config.setName("seek_priority");
+            config.setPriority((short) (i % 2));
+            return config;
+        }).toList();
+        DrRepository.batchInsert(configs);
+
+        // short排序字段生成包装类型参数
+        Page<Config> page = DrRepository.seek(new ConfigQuery().eqName("seek_priority").seekAscPriority((short) 0, configs.get(2).getId()), 10);
+        Assertions.assertEquals(List.of(configs.get(1).getId(), configs.get(3).getId()), page.getRecords().stream().map(Config::getId).toList());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConfigQuery().seekAscPriority(null, 1L));
+        DrRepository.delete(new ConfigQuery().eqName("seek_priority"));
+    }
+
+    @Test
+    public void test_tableInfo_sharedImmutableSnapshot() throws IllegalAccessException {
+        List<TableInfo<Device>> tableInfos = IntStream.range(0, 16).parallel()
+                .mapToObj(i -> EntityHelper.getTableInfo(Device.class))
+                .toList();
+        TableInfo<Device> tableInfo = tableInfos.getFirst();
+        Assertions.assertTrue(tableInfos.stream().allMatch(info -> info == tableInfo));
+        Assertions.assertSame(tableInfo, DrRepository.repository(Device.class).getTableInfo());
+        Assertions.assertEquals(tableInfo.getFieldMap().size(), tableInfo.getColumnNames().length);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> tableInfo.getFieldMap().remove("id"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> tableInfo.getWhenDuplicateUpdateFields().add("name"));
+
+        // 不同驱动返回的值类型交替出现时，每种类型的兼容性各判断一次
+        FieldInfo idField = tableInfo.getIdField();
+        Device device = new Device();
+        EntityHelper.assignField(idField, device, 1);
+        Assertions.assertEquals(1L, device.getId());
+        EntityHelper.assignField(idField, device, 2L);
+        Assertions.assertEquals(2L, device.getId());
+        EntityHelper.assignField(idField, device, 3);
+        Assertions.assertEquals(3L, device.getId());
+        Assertions.assertFalse(idField.getValueCompatibility().get(Integer.class));
+        Assertions.assertTrue(idField.getValueCompatibility().get(Long.class));
+    }
+
+    @Test
+    public void test_generatedRepository_typedApi() {
+        UserDrRepository userRepository = SpringUtils.getBean(UserDrRepository.class);
+        Assertions.assertSame(EntityHelper.getTableInfo(User.class), userRepository.getTableInfo());
+
+        User user = new User();
+        user.setName("typed_repository");
+        user.setAddress("Typed Street");
+        userRepository.insert(user);
+        Assertions.assertNotNull(user.getId());
+
+        User found = userRepository.findOne(userRepository.query().eqId(user.getId())).orElseThrow();
+        Assertions.assertEquals("Typed Street", found.getAddress());
+        Assertions.assertEquals(1, userRepository.count(userRepository.query().eqName("typed_repository")));
+        Assertions.assertEquals(1, userRepository.delete(userRepository.query().eqId(user.getId())));
+    }
+
+    @Test
+    public void test_jsonbFeature_readsBinaryAndLegacyText() {
+        Device device = new Device();
+        device.setName("jsonb");
+        device.setColor("blue");
+        device.setTags(List.of("a", "b"));
+        DrRepository.insert(device);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(SpringUtils.getBean(DataSource.class));
+        byte[] stored = jdbcTemplate.queryForObject("select feature from device_test where id = ?", byte[].class, device.getId());
+        Assertions.assertEquals(JSONB.Constants.BC_OBJECT, stored[0]);
+
+        Device found = DrRepository.findOne(new DeviceQuery().eqId(device.getId())).orElseThrow();
+        Assertions.assertEquals("blue", found.getColor());
+        Assertions.assertEquals(List.of("a", "b"), found.getTags());
+
+        // 切换编码前以JSON文本写入的行
+        jdbcTemplate.update("insert into device_test(name, feature) values (?, ?)", "legacy", "{\"color\":\"red\"}".getBytes(StandardCharsets.UTF_8));
+        Device legacy = DrRepository.findOne(new DeviceQuery().eqName("legacy")).orElseThrow();
+        Assertions.assertEquals("red", legacy.getColor());
+        DrRepository.delete(new DeviceQuery().inName(List.of("jsonb", "legacy")));
+    }
+
+    @Test
+    public void test_compressedFeature_roundTrip() {
+        List<String> tags = IntStream.range(0, 100).mapToObj(i -> "tag_" + i).collect(Collectors.toList());
+        Device device = new Device();
+        device.setName("compressed");
+        device.setTags(tags);
+        DrRepository.insert(device);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(SpringUtils.getBean(DataSource.class));
+        byte[] stored = jdbcTemplate.queryForObject("select feature from device_test where id = ?", byte[].class, device.getId());
+        Assertions.assertTrue(FeatureCompressor.isCompressed(stored));
+
+        Device found = DrRepository.findOne(new DeviceQuery().eqId(device.getId())).orElseThrow();
+        Assertions.assertEquals(tags, found.getTags());
+        DrRepository.delete(new DeviceQuery().eqId(device.getId()));
+
+        String json = "{\"address\":\"" + "x".repeat(1000) + "\"}";
+        String compressed = FeatureCompressor.compressText(json);
+        Assertions.assertTrue(compressed.length() < json.length());
+        Assertions.assertEquals(json, new String(FeatureCompressor.decompressText(compressed), StandardCharsets.UTF_8));
+
+        // 头部长度与内容不符时抛出异常，不按头部长度分配内存
+        byte[] corrupt = FeatureCompressor.compress(json.getBytes(StandardCharsets.UTF_8));
+        corrupt[2] = 0x7F;
+        Assertions.assertThrows(RuntimeException.class, () -> FeatureCompressor.decompress(corrupt));
+        byte[] shortHeader = FeatureCompressor.compress(json.getBytes(StandardCharsets.UTF_8));
+        shortHeader[4] = 0;
+        shortHeader[5] = 1;
+        Assertions.assertThrows(RuntimeException.class, () -> FeatureCompressor.decompress(shortHeader));
+    }
+
+    @Test
+    public void test_entityCache_hitsAndInvalidates() {
+        Config config = new Config();
+        config.setName("cached");
+        config.setContent("blue");
+        DrRepository.insert(config);
+        SegmentedLruCache<Object, byte[]> cache = DrRepository.repository(Config.class).getEntityCache().getCache();
+
+        Config first = DrRepository.findOne(new ConfigQuery().eqId(config.getId())).orElseThrow();
+        long hits = cache.getHitCount();
+        Config second = DrRepository.findOne(new ConfigQuery().eqId(config.getId())).orElseThrow();
+        Assertions.assertEquals(hits + 1, cache.getHitCount());
+        Assertions.assertEquals("blue", second.getContent());
+        Assertions.assertNotSame(first, second);
+
+        // 修改返回的实体不影响缓存
+        second.setContent("changed");
+        Assertions.assertEquals("blue", DrRepository.findOne(new ConfigQuery().eqId(config.getId())).orElseThrow().getContent());
+
+        Config update = new Config();
+        update.setContent("red");
+        DrRepository.update(update, new ConfigQuery().eqId(config.getId()));
+        Assertions.assertEquals("red", DrRepository.findOne(new ConfigQuery().eqId(config.getId())).orElseThrow().getContent());
+
+        List<Config> configs = DrRepository.findByCondition(new ConfigQuery().inId(List.of(config.getId(), -1L, config.getId())));
+        Assertions.assertEquals(1, configs.size());
+        DrRepository.delete(new ConfigQuery().eqId(config.getId()));
+        Assertions.assertTrue(DrRepository.findOne(new ConfigQuery().eqId(config.getId())).isEmpty());
+    }
+
+    @Test
+    public void test_repository_followsCurrentContext() {
+        TypedDrRepository<User> repository = DrRepository.repository(User.class);
+        Assertions.assertSame(repository, DrRepository.repository(User.class));
+
+        // 模拟容器刷新：新的容器里配置Bean变化，门面不能继续使用旧容器的Bean
+        GenericApplicationContext refreshed = new GenericApplicationContext(applicationContext);
+        refreshed.registerBean(MyBatisDrProperties.class);
+        refreshed.refresh();
+        try {
+            new SpringUtils().setApplicationContext(refreshed);
+            TypedDrRepository<User> refreshedRepository = DrRepository.repository(User.class);
+            Assertions.assertNotSame(repository, refreshedRepository);
+            Assertions.assertSame(repository.getTableInfo(), refreshedRepository.getTableInfo());
+            Assertions.assertTrue(DrRepository.findOne(new UserQuery().eqName("nobody")).isEmpty());
+        } finally {
+            new SpringUtils().setApplicationContext(applicationContext);
+            refreshed.close();
+        }
+        Assertions.assertNotSame(repository, DrRepository.repository(User.class));
+    }
+
+    @Test
+    public void test_entityCache_sharedAcrossRepositories() {
+        ConfigDrRepository configRepository = SpringUtils.getBean(ConfigDrRepository.class);
+        Assertions.assertSame(DrRepository.repository(Config.class).getEntityCache(), configRepository.getEntityCache());
+
+        Config config = new Config();
+        config.setName("shared");
+        config.setContent("blue");
+        DrRepository.insert(config);
+        Assertions.assertEquals("blue", DrRepository.findOne(new ConfigQuery().eqId(config.getId())).orElseThrow().getContent());
+
+        // 通过生成的仓库写入，静态入口读取到新值
+        Config update = new Config();
+        update.setContent("red");
+        configRepository.update(update, configRepository.query().eqId(config.getId()));
+        Assertions.assertEquals("red", DrRepository.findOne(new ConfigQuery().eqId(config.getId())).orElseThrow().getContent());
+        configRepository.delete(configRepository.query().eqId(config.getId()));
+    }
+
+    @Test
+    public void test_queryCache_invalidatedByWrites() {
+        Config config = new Config();
+        config.setName("query_cache");
+        config.setContent("blue");
+        DrRepository.insert(config);
+        SegmentedLruCache<DrQueryCache.Key, Object> cache = DrRepository.repository(Config.class).getQueryCache().getCache();
+
+        Config first = DrRepository.findOne(new ConfigQuery().eqName("query_cache")).orElseThrow();
+        long hits = cache.getHitCount();
+        Config second = DrRepository.findOne(new ConfigQuery().eqName("query_cache")).orElseThrow();
+        Assertions.assertEquals(hits + 1, cache.getHitCount());
+        Assertions.assertNotSame(first, second);
+        // 绑定值不同是不同的条目
+        Assertions.assertTrue(DrRepository.findOne(new ConfigQuery().eqName("query_cache_other")).isEmpty());
+        Assertions.assertEquals(1, DrRepository.count(new ConfigQuery().eqName("query_cache")));
+        Assertions.assertEquals(1, DrRepository.count(new ConfigQuery().eqName("query_cache")));
+        Assertions.assertEquals(hits + 2, cache.getHitCount());
+
+        // 插入也会使查询缓存失效
+        Config another = new Config();
+        another.setName("query_cache");
+        DrRepository.insert(another);
+        Assertions.assertEquals(2, DrRepository.findByCondition(new ConfigQuery().eqName("query_cache")).size());
+        Assertions.assertEquals(2, DrRepository.count(new ConfigQuery().eqName("query_cache")));
+        Assertions.assertTrue(cache.getHitRatio() > 0);
+
+        DrRepository.delete(new ConfigQuery().eqName("query_cache"));
+        Assertions.assertEquals(0, DrRepository.count(new ConfigQuery().eqName("query_cache")));
+    }
+
+    @Test
+    public void test_queryCache_sharedAcrossRepositories() {
+        ConfigDrRepository configRepository = SpringUtils.getBean(ConfigDrRepository.class);
+        Assertions.assertSame(DrRepository.repository(Config.class).getQueryCache(), configRepository.getQueryCache());
+
+        Config config = new Config();
+        config.setName("query_shared");
+        DrRepository.insert(config);
+        Assertions.assertEquals(1, configRepository.count(configRepository.query().eqName("query_shared")));
+
+        // 通过静态入口写入，生成的仓库读取到新结果
+        Config another = new Config();
+        another.setName("query_shared");
+        DrRepository.insert(another);
+        Assertions.assertEquals(2, configRepository.count(configRepository.query().eqName("query_shared")));
+        Assertions.assertEquals(2, configRepository.findByCondition(configRepository.query().eqName("query_shared")).size());
+        DrRepository.delete(new ConfigQuery().eqName("query_shared"));
+        Assertions.assertEquals(0, configRepository.count(configRepository.query().eqName("query_shared")));
+    }
+
+    @Test
+    public void test_sqlCache_reusesSameShape() {
+        DrRepository.findByCondition(new UserQuery().eqName("shape_a").inId(List.of(1L, 2L)));
+        long hits = DrSqlCache.getHitCount();
+        int size = DrSqlCache.size();
+
+        List<User> users = DrRepository.findByCondition(new UserQuery().eqName("shape_b").inId(List.of(3L, 4L)));
+        Assertions.assertTrue(users.isEmpty());
+        Assertions.assertEquals(hits + 1, DrSqlCache.getHitCount());
+        Assertions.assertEquals(size, DrSqlCache.size());
+
+        // IN列表长度不同是不同的形状
+        DrRepository.findByCondition(new UserQuery().eqName("shape_c").inId(List.of(5L, 6L, 7L)));
+        Assertions.assertEquals(hits + 1, DrSqlCache.getHitCount());
+    }
+
+    @Test
+    public void test_batchInsert_jdbcBatchMode() {
+        MyBatisDrProperties properties = SpringUtils.getBean(MyBatisDrProperties.class);
+        properties.setBatchMode(MyBatisDrProperties.BatchMode.JDBC_BATCH);
+        properties.setBatchChunkSize(2);
+        try {
+            List<User> users = IntStream.range(0, 5).mapToObj(i -> {
+                User user = new User();
+                user.setName("jdbc_batch_" + i);
+                user.setBirthday(LocalDate.of(2000, 1, 1 + i));
+                user.setLastLoginTime(LocalDateTime.now());
+                if (i % 2 == 0) {
+                    user.setAddress("Milan " + i);
+                }
+                return user;
+            }).collect(Collectors.toList());
+
+            Assertions.assertEquals(5, DrRepository.batchInsert(users));
+            users.forEach(user -> {
+                Assertions.assertNotNull(user.getId());
+                Optional<User> found = DrRepository.findOne(new UserQuery().eqId(user.getId()));
+                Assertions.assertTrue(found.isPresent());
+                Assertions.assertEquals(user.getName(), found.get().getName());
+                Assertions.assertEquals(user.getAddress(), found.get().getAddress());
+            });
+
+            users.forEach(user -> user.setName(user.getName() + "_updated"));
+            DrRepository.batchInsertOrUpdate(users);
+            Assertions.assertEquals(5, DrRepository.count(new UserQuery().likeRightName("jdbc_batch_").likeLeftName("_updated")));
+            DrRepository.delete(new UserQuery().likeRightName("jdbc_batch_"));
+        } finally {
+            properties.setBatchMode(MyBatisDrProperties.BatchMode.MULTI_VALUES);
+            properties.setBatchChunkSize(1000);
+        }
+    }
+
+    @Test
+    public void test_batchInsert_splitsChunks() {
+        MyBatisDrProperties properties = SpringUtils.getBean(MyBatisDrProperties.class);
+        properties.setBatchChunkSize(3);
+        properties.setBatchMaxBytes(400);
+        try {
+            // 列集合不同的行、超过字节上限的行都会拆到不同的语句中
+            List<User> users = IntStream.range(0, 8).mapToObj(i -> {
+                User user = new User();
+                user.setName("chunk_" + i);
+                if (i % 3 == 0) {
+                    user.setAddress("x".repeat(i * 40));
+                }
+                return user;
+            }).collect(Collectors.toList());
+
+            Assertions.assertEquals(8, DrRepository.batchInsert(users));
+            users.forEach(user -> {
+                Optional<User> found = DrRepository.findOne(new UserQuery().eqId(user.getId()));
+                Assertions.assertTrue(found.isPresent());
+                Assertions.assertEquals(user.getName(), found.get().getName());
+                Assertions.assertEquals(user.getAddress(), found.get().getAddress());
+            });
+            DrRepository.delete(new UserQuery().likeRightName("chunk_"));
+        } finally {
+            properties.setBatchChunkSize(1000);
+            properties.setBatchMaxBytes(4 * 1024 * 1024);
+        }
+    }
 }
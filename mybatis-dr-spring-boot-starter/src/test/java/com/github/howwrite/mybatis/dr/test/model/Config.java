@@ -0,0 +1,31 @@
+package com.github.howwrite.mybatis.dr.test.model;
+
+
+import com.github.howwrite.annotation.DrColumn;
+import com.github.howwrite.annotation.DrTable;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@DrTable(value = "config_test", entityCacheSize = 100, queryCacheSize = 100)
+public class Config {
+
+    @DrColumn("id")
+    private Long id;
+
+    @DrColumn("name")
+    private String name;
+
+    @DrColumn("priority")
+    private short priority;
+
+    @DrColumn(value = "content", query = false)
+    private String content;
+
+    @DrColumn("created_time")
+    private LocalDateTime createdTime;
+
+    @DrColumn("updated_time")
+    private LocalDateTime updatedTime;
+}
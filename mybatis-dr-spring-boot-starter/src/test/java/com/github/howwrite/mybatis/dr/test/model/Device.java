@@ -0,0 +1,33 @@
+package com.github.howwrite.mybatis.dr.test.model;
+
+
+import com.github.howwrite.annotation.DrColumn;
+import com.github.howwrite.annotation.DrTable;
+import com.github.howwrite.constant.FeatureEncoding;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@DrTable(value = "device_test", featureEncoding = FeatureEncoding.JSONB, featureCompressThreshold = 256)
+public class Device {
+
+    @DrColumn("id")
+    private Long id;
+
+    @DrColumn("name")
+    private String name;
+
+    @DrColumn(value = "color", query = false)
+    private String color;
+
+    @DrColumn(value = "tags", query = false)
+    private List<String> tags;
+
+    @DrColumn("created_time")
+    private LocalDateTime createdTime;
+
+    @DrColumn("updated_time")
+    private LocalDateTime updatedTime;
+}
@@ -27,6 +27,9 @@ public class User {
     @DrColumn(value = "address", query = false)
     private String address;
 
+    @DrColumn(value = "level", query = false)
+    private Integer level;
+
     @DrColumn("created_time")
     private LocalDateTime createdTime;
 
@@ -7,4 +7,25 @@ CREATE TABLE if not exists user_test
     `last_login_time` datetime comment '创建时间',
     `created_time`    datetime    not null default CURRENT_TIMESTAMP comment '创建时间',
     `updated_time`    datetime    not null default CURRENT_TIMESTAMP comment '记录修改时间'
-);
\ No newline at end of file
+);
+CREATE TABLE if not exists device_test
+(
+    `id`           bigint primary key auto_increment comment 'id',
+    `name`         VARCHAR(50) not null comment '设备名',
+    `feature`      longblob comment '扩展内容',
+    `created_time` datetime    not null default CURRENT_TIMESTAMP comment '创建时间',
+    `updated_time` datetime    not null default CURRENT_TIMESTAMP comment '记录修改时间'
+);
+CREATE TABLE if not exists config_test
+(
+    `id`           bigint primary key auto_increment comment 'id',
+    `name`         VARCHAR(50) not null comment '配置名',
+    `priority`     smallint    not null default 0 comment '优先级',
+    `feature`      longtext comment '扩展内容',
+    `created_time` datetime    not null default CURRENT_TIMESTAMP comment '创建时间',
+    `updated_time` datetime    not null default CURRENT_TIMESTAMP comment '记录修改时间'
+);
+
+CREATE ALIAS if not exists JSON_EXTRACT FOR "com.github.howwrite.mybatis.dr.test.H2JsonFunctions.jsonExtract";
+CREATE ALIAS if not exists JSON_UNQUOTE FOR "com.github.howwrite.mybatis.dr.test.H2JsonFunctions.jsonUnquote";
+CREATE ALIAS if not exists JSON_SET FOR "com.github.howwrite.mybatis.dr.test.H2JsonFunctions.jsonSet";